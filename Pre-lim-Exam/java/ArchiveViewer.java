@@ -0,0 +1,40 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Read-only window over a records archive, paged in from disk as it scrolls
+public class ArchiveViewer extends JFrame {
+    private final PagedTableModel model;
+
+    public ArchiveViewer(Path archive) throws IOException {
+        setTitle("Archive - " + archive.getFileName());
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setSize(1000, 600);
+
+        model = new PagedTableModel(archive);
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        JLabel statusLabel = new JLabel(model.getRowCount() + " rows");
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statusPanel.add(statusLabel);
+
+        add(statusPanel, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                try {
+                    model.close();
+                } catch (IOException ignored) {
+                    // Read-only file, nothing to lose
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,390 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+// Fills the ATTENDANCE GRADE column from the check-in journal the attendance tracker
+// (lab activity 1) writes, and keeps following it.
+//
+// A background thread reads only the records past its saved position and aggregates
+// them in a hash table of attended days per student (normalized name) within the
+// term. Every day someone checked in on is a class session; absences are the
+// sessions a student missed, graded like the prelim calculator does (100, minus 10
+// per absence). Only the students whose counts changed are handed to the Event
+// Dispatch Thread, which joins them to rows by first and last name. All rows are
+// regraded only when a new session day adds an absence to everyone who is not there.
+public class AttendanceFeed implements RecordsTableModel.RecordsListener {
+    private static final int ATTENDANCE = RecordsTableModel.SCORE_COUNT - 1;
+    private static final long POLL_MILLIS = 1000;
+
+    // Segment format of the tracker's AttendanceJournal
+    private static final int MAGIC = 0x41544A4C; // "ATJL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAX_RECORD = 3 * 0xFFFF + 32;
+
+    // Called on the Event Dispatch Thread
+    interface Listener {
+        void gradesUpdated(int sessions, int changedRows);
+    }
+
+    private final RecordsTableModel model;
+    private final Path directory;
+    private final String course; // null counts every course
+    private final long firstDay; // term, as epoch days
+    private final long lastDay;
+    private final ZoneId zone;
+    private final Listener listener;
+    private volatile boolean running = true;
+    private Thread thread;
+
+    // Reader thread: position in the journal and the aggregation
+    private long sequence = -1;
+    private long offset;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+    private final Map<String, BitSet> attended = new HashMap<>(); // name -> session days present
+    private final BitSet sessions = new BitSet();
+    private long baseDay = Long.MIN_VALUE; // day of bit 0
+    private long dayStart = Long.MAX_VALUE; // [dayStart, dayEnd) in epoch millis, of cachedDay
+    private long dayEnd = Long.MIN_VALUE;
+    private long cachedDay;
+
+    // Event Dispatch Thread: the join to rows
+    private int sessionCount;
+    private final Map<String, Integer> daysByName = new HashMap<>();
+    private final Set<String> unmatched = new HashSet<>(); // no row has this first + last name yet
+    private int[] canonicalCodes = new int[0]; // name code -> id of its normalized form + 1, 0 = not yet
+    private final Map<String, Integer> canonicalIds = new HashMap<>();
+    private int joinedNames; // canonicalIds.size() when unmatched was last retried
+    private final LongIntHashMap daysByRow = new LongIntHashMap(); // (first, last) id pair -> days
+    private final LongIntHashMap firstSlots = new LongIntHashMap(); // (first, last) id pair -> a slot
+    private int[] nextSlots = new int[1024]; // next slot with the same names, -1 at the end
+
+    // Term from first to last inclusive; either may be null to leave that end open
+    AttendanceFeed(RecordsTableModel model, Path directory, String course, LocalDate first, LocalDate last,
+                   Listener listener) {
+        this.model = model;
+        this.directory = directory.toAbsolutePath();
+        this.course = course;
+        this.firstDay = first == null ? Long.MIN_VALUE : first.toEpochDay();
+        this.lastDay = last == null ? Long.MAX_VALUE : last.toEpochDay();
+        this.zone = ZoneId.systemDefault();
+        this.listener = listener;
+    }
+
+    // Must be called on the Event Dispatch Thread
+    void start() throws IOException {
+        if (!Files.isDirectory(directory)) throw new IOException(directory + " is not a directory");
+        model.addRecordsListener(this);
+        recordsAdded(0, model.slotCount() - 1);
+        thread = new Thread(this::readLoop, "attendance-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        model.removeRecordsListener(this);
+        if (thread != null) thread.interrupt();
+    }
+
+    // Rows are indexed by their name pair; their grade is set afterwards, outside the
+    // model's notification
+    @Override
+    public void recordsAdded(int firstSlot, int lastSlot) {
+        if (lastSlot < firstSlot) return;
+        if (lastSlot >= nextSlots.length) {
+            nextSlots = Arrays.copyOf(nextSlots, Math.max(nextSlots.length * 2, lastSlot + 1));
+        }
+        for (int slot = firstSlot; slot <= lastSlot; slot++) {
+            if (model.rowOfSlot(slot) < 0) continue;
+            long key = rowKey(slot);
+            nextSlots[slot] = firstSlots.put(key, slot);
+        }
+        int generation = model.generation();
+        SwingUtilities.invokeLater(() -> {
+            if (!running || generation != model.generation() || sessionCount == 0) return;
+            retryUnmatched(null);
+            IntList slots = new IntList(lastSlot - firstSlot + 1);
+            for (int slot = firstSlot; slot <= lastSlot; slot++) slots.add(slot);
+            regrade(slots);
+        });
+    }
+
+    @Override
+    public void recordsRemoved(int[] slots, int count) {
+        for (int n = 0; n < count; n++) {
+            int slot = slots[n];
+            long key = rowKey(slot);
+            int head = firstSlots.get(key);
+            if (head == slot) {
+                if (nextSlots[slot] < 0) {
+                    firstSlots.remove(key);
+                } else {
+                    firstSlots.put(key, nextSlots[slot]);
+                }
+                continue;
+            }
+            for (int previous = head; previous >= 0; previous = nextSlots[previous]) {
+                if (nextSlots[previous] == slot) {
+                    nextSlots[previous] = nextSlots[slot];
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void recordsCleared() {
+        firstSlots.clear();
+    }
+
+    @Override
+    public void scoresChanged(int scoreIndex, int[] slots, int[] oldScores, int count) {
+        // Including our own; names are all the join looks at
+    }
+
+    private void readLoop() {
+        while (running) {
+            try {
+                readAppended();
+            } catch (IOException e) {
+                // The tracker may be rotating or recovering a segment; retried on the next pass
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void readAppended() throws IOException {
+        int knownSessions = sessions.cardinality();
+        Map<String, Integer> changed = new HashMap<>();
+        try {
+            for (Map.Entry<Long, Path> segment : segments().tailMap(sequence, true).entrySet()) {
+                if (segment.getKey() != sequence) {
+                    sequence = segment.getKey();
+                    offset = 0;
+                }
+                readSegment(segment.getValue(), changed);
+            }
+        } finally {
+            // Records aggregated before a failure are past the saved offset and will not
+            // be read again, so they are posted either way
+            int sessionsNow = sessions.cardinality();
+            if (!changed.isEmpty() || sessionsNow != knownSessions) {
+                SwingUtilities.invokeLater(() -> {
+                    if (running) apply(sessionsNow, changed);
+                });
+            }
+        }
+    }
+
+    // Aggregates the complete records of the segment past the saved offset; stops at a
+    // record still being written (or a torn one, which the tracker cuts off)
+    private void readSegment(Path file, Map<String, Integer> changed) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (offset == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                }
+                header.flip();
+                // Like the tracker, a segment without a valid header holds nothing
+                if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) return;
+                offset = HEADER_SIZE;
+            }
+            CRC32 crc = new CRC32();
+            while (running) {
+                buffer.clear();
+                if (channel.read(buffer, offset) <= 0) return;
+                buffer.flip();
+                int consumed = 0;
+                while (buffer.remaining() >= 4) {
+                    int start = buffer.position();
+                    int length = buffer.getInt(start);
+                    if (length < 14 || length > MAX_RECORD) return;
+                    if (buffer.remaining() < 8 + length) break;
+                    crc.reset();
+                    crc.update(buffer.array(), start + 4, length);
+                    if ((int) crc.getValue() != buffer.getInt(start + 4 + length)) return;
+                    buffer.position(start + 4);
+                    long millis = buffer.getLong();
+                    String name = getString(buffer);
+                    String recordCourse = getString(buffer);
+                    buffer.position(start + 8 + length);
+                    offset += 8 + length;
+                    consumed++;
+                    aggregate(millis, name, recordCourse, changed);
+                }
+                if (consumed == 0) return;
+            }
+        }
+    }
+
+    private void aggregate(long epochMillis, String name, String recordCourse, Map<String, Integer> changed) {
+        if (course != null && !course.equals(recordCourse)) return;
+        long day = dayOf(epochMillis);
+        if (day < firstDay || day > lastDay) return;
+        if (baseDay == Long.MIN_VALUE) baseDay = firstDay != Long.MIN_VALUE ? firstDay : day;
+        if (day < baseDay) return; // the journal is in time order, so only after a clock change
+        int index = (int) (day - baseDay);
+        sessions.set(index);
+        String key = normalize(name);
+        BitSet days = attended.computeIfAbsent(key, k -> new BitSet());
+        if (days.get(index)) return;
+        days.set(index);
+        changed.put(key, days.cardinality());
+    }
+
+    // Consecutive check-ins fall on the same day, so its bounds are kept
+    private long dayOf(long epochMillis) {
+        if (epochMillis < dayStart || epochMillis >= dayEnd) {
+            LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+            cachedDay = date.toEpochDay();
+            dayStart = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            dayEnd = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return cachedDay;
+    }
+
+    // Event Dispatch Thread: joins the changed students to their rows and regrades
+    // those, or every row when the number of sessions moved
+    private void apply(int sessions, Map<String, Integer> changed) {
+        boolean everyone = sessions != sessionCount;
+        sessionCount = sessions;
+        daysByName.putAll(changed);
+        IntList slots = new IntList();
+        for (Map.Entry<String, Integer> student : changed.entrySet()) {
+            join(student.getKey(), student.getValue(), everyone ? null : slots);
+        }
+        retryUnmatched(everyone ? null : slots);
+        if (everyone) {
+            slots = new IntList(model.slotCount());
+            for (int slot = 0; slot < model.slotCount(); slot++) slots.add(slot);
+        }
+        int updated = regrade(slots);
+        if (listener != null) listener.gradesUpdated(sessions, updated);
+    }
+
+    // Records the student's days under each first/last name split that rows use, e.g.
+    // "juan dela cruz" as "juan" + "dela cruz" or "juan dela" + "cruz", and collects
+    // the matching slots
+    private void join(String name, int days, IntList slots) {
+        boolean matched = false;
+        for (int space = name.indexOf(' '); space > 0; space = name.indexOf(' ', space + 1)) {
+            Integer first = canonicalIds.get(name.substring(0, space));
+            Integer last = canonicalIds.get(name.substring(space + 1));
+            if (first == null || last == null) continue;
+            long key = (long) first << 32 | last;
+            daysByRow.put(key, days);
+            matched = true;
+            if (slots == null) continue;
+            for (int slot = firstSlots.get(key); slot >= 0; slot = nextSlots[slot]) slots.add(slot);
+        }
+        if (matched) {
+            unmatched.remove(name);
+        } else {
+            unmatched.add(name);
+        }
+    }
+
+    // Rows added since may carry names that check-ins were waiting for
+    private void retryUnmatched(IntList slots) {
+        if (unmatched.isEmpty() || joinedNames == canonicalIds.size()) return;
+        joinedNames = canonicalIds.size();
+        for (String name : unmatched.toArray(new String[0])) {
+            join(name, daysByName.get(name), slots);
+        }
+    }
+
+    private int regrade(IntList slots) {
+        int[] changedSlots = new int[slots.size()];
+        int[] grades = new int[slots.size()];
+        int count = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            int slot = slots.get(i);
+            if (model.rowOfSlot(slot) < 0) continue;
+            int days = Math.max(0, daysByRow.get(rowKey(slot)));
+            int grade = Math.max(0, 100 - 10 * (sessionCount - days));
+            if (grade == model.scoreAt(slot, ATTENDANCE)) continue;
+            changedSlots[count] = slot;
+            grades[count++] = grade;
+        }
+        return model.setScores(ATTENDANCE, changedSlots, grades, count);
+    }
+
+    private long rowKey(int slot) {
+        return (long) canonical(model.firstNameAt(slot)) << 32 | canonical(model.lastNameAt(slot));
+    }
+
+    // Id of the name's normalized form, shared by every spelling that normalizes alike
+    private int canonical(int code) {
+        if (code >= canonicalCodes.length) {
+            canonicalCodes = Arrays.copyOf(canonicalCodes, Math.max(canonicalCodes.length * 2, code + 1));
+        }
+        if (canonicalCodes[code] == 0) {
+            String normalized = normalize(model.names().get(code));
+            canonicalCodes[code] = canonicalIds.computeIfAbsent(normalized, k -> canonicalIds.size()) + 1;
+        }
+        return canonicalCodes[code] - 1;
+    }
+
+    // Trimmed, inner spaces collapsed, lower case: the tracker's duplicate check-in key
+    static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) normalized.append(' ');
+                space = false;
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private TreeMap<Long, Path> segments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "attendance-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring("attendance-".length(), name.length() - 4)), file);
+                } catch (NumberFormatException ignored) {
+                    // not a segment
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
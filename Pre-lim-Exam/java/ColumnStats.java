@@ -0,0 +1,158 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.util.Arrays;
+
+// Running statistics of the five score columns, kept up to date from the model's
+// slot callbacks so the statistics dialog never rescans the table. Mean and
+// variance use Welford's update (and its inverse for deletes); scores are 0-100, so
+// a 101-bucket histogram per column gives exact minimum, maximum and percentiles.
+public class ColumnStats implements RecordsTableModel.RecordsListener {
+    private final RecordsTableModel model;
+    private long count;
+    private final double[] means = new double[RecordsTableModel.SCORE_COUNT];
+    private final double[] squares = new double[RecordsTableModel.SCORE_COUNT]; // sum of squared deviations
+    private final long[][] histograms = new long[RecordsTableModel.SCORE_COUNT][101];
+
+    public ColumnStats(RecordsTableModel model) {
+        this.model = model;
+    }
+
+    // Statistics of one column; percentiles use the nearest-rank definition
+    static final class Summary {
+        final long count;
+        final double mean;
+        final double standardDeviation; // population
+        final long[] histogram;
+
+        Summary(long count, double mean, double standardDeviation, long[] histogram) {
+            this.count = count;
+            this.mean = mean;
+            this.standardDeviation = standardDeviation;
+            this.histogram = histogram;
+        }
+
+        // Smallest score with at least percent% of the records at or below it, -1 if empty
+        int percentile(double percent) {
+            if (count == 0) return -1;
+            long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+            long seen = 0;
+            for (int score = 0; score <= 100; score++) {
+                seen += histogram[score];
+                if (seen >= rank) return score;
+            }
+            return 100;
+        }
+
+        int min() {
+            return percentile(0);
+        }
+
+        int max() {
+            return percentile(100);
+        }
+
+        // Records scoring from..to inclusive
+        long countBetween(int from, int to) {
+            long total = 0;
+            for (int score = from; score <= to; score++) total += histogram[score];
+            return total;
+        }
+    }
+
+    @Override
+    public synchronized void recordsAdded(int firstSlot, int lastSlot) {
+        for (int slot = firstSlot; slot <= lastSlot; slot++) {
+            count++;
+            for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+                int score = model.scoreAt(slot, i);
+                double delta = score - means[i];
+                means[i] += delta / count;
+                squares[i] += delta * (score - means[i]);
+                histograms[i][score]++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void recordsRemoved(int[] slots, int count) {
+        for (int n = 0; n < count; n++) {
+            int slot = slots[n];
+            this.count--;
+            for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+                int score = model.scoreAt(slot, i);
+                histograms[i][score]--;
+                if (this.count == 0) {
+                    means[i] = 0;
+                    squares[i] = 0;
+                    continue;
+                }
+                double delta = score - means[i];
+                means[i] -= delta / this.count;
+                squares[i] = Math.max(0, squares[i] - delta * (score - means[i]));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void recordsCleared() {
+        count = 0;
+        for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+            means[i] = 0;
+            squares[i] = 0;
+            Arrays.fill(histograms[i], 0);
+        }
+    }
+
+    // Replacing x by y keeps the count: the mean moves by (y - x) / n and the sum of
+    // squared deviations by (y - x) * (y - newMean + x - oldMean)
+    @Override
+    public synchronized void scoresChanged(int scoreIndex, int[] slots, int[] oldScores, int count) {
+        for (int n = 0; n < count; n++) {
+            int before = oldScores[n];
+            int after = model.scoreAt(slots[n], scoreIndex);
+            double mean = means[scoreIndex];
+            double updated = mean + (double) (after - before) / this.count;
+            squares[scoreIndex] = Math.max(0, squares[scoreIndex] + (after - before) * (after - updated + before - mean));
+            means[scoreIndex] = updated;
+            histograms[scoreIndex][before]--;
+            histograms[scoreIndex][after]++;
+        }
+    }
+
+    // Statistics over every record in the model
+    synchronized Summary summary(int scoreIndex) {
+        double deviation = count == 0 ? 0 : Math.sqrt(squares[scoreIndex] / count);
+        return new Summary(count, means[scoreIndex], deviation, histograms[scoreIndex].clone());
+    }
+
+    // Statistics over the given slots only, e.g. the rows a search left visible.
+    // One pass builds the histograms; everything else is read from them.
+    Summary[] summaries(int[] slots, int length) {
+        long[][] counts = new long[RecordsTableModel.SCORE_COUNT][101];
+        for (int n = 0; n < length; n++) {
+            for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+                counts[i][model.scoreAt(slots[n], i)]++;
+            }
+        }
+        Summary[] summaries = new Summary[RecordsTableModel.SCORE_COUNT];
+        for (int i = 0; i < summaries.length; i++) {
+            summaries[i] = fromHistogram(counts[i]);
+        }
+        return summaries;
+    }
+
+    static Summary fromHistogram(long[] histogram) {
+        long total = 0;
+        double sum = 0;
+        for (int score = 0; score <= 100; score++) {
+            total += histogram[score];
+            sum += (double) score * histogram[score];
+        }
+        double mean = total == 0 ? 0 : sum / total;
+        double squares = 0;
+        for (int score = 0; score <= 100; score++) {
+            squares += histogram[score] * (score - mean) * (score - mean);
+        }
+        return new Summary(total, mean, total == 0 ? 0 : Math.sqrt(squares / total), histogram);
+    }
+}
@@ -0,0 +1,243 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// RFC 4180 parser for the class records layout that works on raw bytes. The file is
+// memory-mapped window by window, scores are parsed straight to ints and names are
+// interned from their bytes, so no String is created per cell.
+public class CsvRecordParser {
+    private static final int WINDOW_SIZE = 64 << 20;
+
+    private static final int FIELD = 0;       // field ended with a comma
+    private static final int END = 1;         // field ended the record
+    private static final int INCOMPLETE = 2;  // ran out of bytes mid-record
+
+    // One parsed record, reused for every row; copy it if it has to outlive the callback
+    static final class Row {
+        long id;
+        int idWidth;
+        int firstName;
+        int lastName;
+        final int[] scores = new int[RecordsTableModel.SCORE_COUNT];
+
+        Row copy() {
+            Row copy = new Row();
+            copy.id = id;
+            copy.idWidth = idWidth;
+            copy.firstName = firstName;
+            copy.lastName = lastName;
+            System.arraycopy(scores, 0, copy.scores, 0, scores.length);
+            return copy;
+        }
+    }
+
+    interface RecordSink {
+        // Returns false to stop parsing
+        boolean accept(Row row);
+    }
+
+    private final StringPool names;
+    private final Row row = new Row();
+    private byte[] scratch = new byte[256];
+    private int scratchLength;
+    private ByteBuffer buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private boolean stopped;
+    private long windowBase;
+    private int invalidRows;
+
+    CsvRecordParser(StringPool names) {
+        this.names = names;
+    }
+
+    // Parses the whole file; returns the number of bytes consumed
+    long parse(Path file, RecordSink sink) throws IOException {
+        return parse(file, 0, sink);
+    }
+
+    // Parses the file from offset from, which must start a line; returns the offset
+    // after the last record read
+    long parse(Path file, long from, RecordSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long base = from;
+            stopped = false;
+            while (base < size && !stopped) {
+                long length = Math.min(WINDOW_SIZE, size - base);
+                windowBase = base;
+                int consumed = parseWindow(channel.map(FileChannel.MapMode.READ_ONLY, base, length),
+                        base + length == size, sink);
+                if (consumed == 0 && base + length < size) {
+                    throw new IOException("Record at byte " + base + " is larger than " + WINDOW_SIZE + " bytes");
+                }
+                base += consumed;
+            }
+            return base;
+        }
+    }
+
+    // Parses complete records from the buffer; when atEof is false a trailing partial
+    // record is left unread. Returns the number of bytes consumed.
+    int parse(ByteBuffer buffer, boolean atEof, RecordSink sink) {
+        windowBase = 0;
+        return parseWindow(buffer, atEof, sink);
+    }
+
+    private int parseWindow(ByteBuffer buffer, boolean atEof, RecordSink sink) {
+        buf = buffer;
+        pos = buffer.position();
+        limit = buffer.limit();
+        eof = atEof;
+        stopped = false;
+        if (windowBase == 0 && limit - pos >= 3 && (buf.get(pos) & 0xFF) == 0xEF
+                && (buf.get(pos + 1) & 0xFF) == 0xBB && (buf.get(pos + 2) & 0xFF) == 0xBF) {
+            pos += 3; // UTF-8 byte order mark
+        }
+        int start = buffer.position();
+        while (pos < limit && !stopped) {
+            int recordStart = pos;
+            int column = 0;
+            boolean valid = true;
+            boolean header = false;
+            int terminator;
+            do {
+                terminator = readField();
+                if (terminator == INCOMPLETE) {
+                    return recordStart - start;
+                }
+                if (column == RecordsTableModel.ID_COLUMN && !parseId()) {
+                    header = isHeader();
+                    valid = false;
+                } else if (!valid) {
+                    // keep scanning to the end of the record, nothing to intern
+                } else if (column == RecordsTableModel.FIRST_NAME_COLUMN) {
+                    row.firstName = names.intern(scratch, 0, scratchLength);
+                } else if (column == RecordsTableModel.LAST_NAME_COLUMN) {
+                    row.lastName = names.intern(scratch, 0, scratchLength);
+                } else if (column >= RecordsTableModel.FIRST_SCORE_COLUMN
+                        && column < RecordsTableModel.COLUMN_NAMES.length) {
+                    int score = parseScore();
+                    if (score < 0) valid = false;
+                    row.scores[column - RecordsTableModel.FIRST_SCORE_COLUMN] = score;
+                }
+                column++;
+            } while (terminator == FIELD);
+
+            if (column == 1 && scratchLength == 0) continue; // blank line
+            if (header) continue;
+            if (valid && column >= RecordsTableModel.COLUMN_NAMES.length) {
+                if (!sink.accept(row)) stopped = true;
+            } else {
+                invalidRows++;
+            }
+        }
+        return pos - start;
+    }
+
+    // Absolute offset of the next unread byte in the file being parsed
+    long position() {
+        return windowBase + pos;
+    }
+
+    int invalidRows() {
+        return invalidRows;
+    }
+
+    // Copies the next field into scratch with quotes removed and surrounding blanks trimmed
+    private int readField() {
+        scratchLength = 0;
+        while (pos < limit && isBlank(buf.get(pos))) pos++;
+        if (pos < limit && buf.get(pos) == '"') {
+            pos++;
+            while (true) {
+                if (pos >= limit) return eof ? END : INCOMPLETE;
+                byte b = buf.get(pos++);
+                if (b == '"') {
+                    if (pos >= limit && !eof) return INCOMPLETE;
+                    if (pos < limit && buf.get(pos) == '"') {
+                        append(b);
+                        pos++;
+                    } else {
+                        break;
+                    }
+                } else {
+                    append(b);
+                }
+            }
+            // Anything between the closing quote and the separator is ignored
+            while (pos < limit && buf.get(pos) != ',' && buf.get(pos) != '\n' && buf.get(pos) != '\r') pos++;
+        } else {
+            while (pos < limit) {
+                byte b = buf.get(pos);
+                if (b == ',' || b == '\n' || b == '\r') break;
+                append(b);
+                pos++;
+            }
+        }
+        while (scratchLength > 0 && isBlank(scratch[scratchLength - 1])) scratchLength--;
+        return terminator();
+    }
+
+    private int terminator() {
+        if (pos >= limit) return eof ? END : INCOMPLETE;
+        byte b = buf.get(pos++);
+        if (b == ',') return FIELD;
+        if (b == '\r') {
+            if (pos >= limit && !eof) return INCOMPLETE;
+            if (pos < limit && buf.get(pos) == '\n') pos++;
+        }
+        return END;
+    }
+
+    private boolean parseId() {
+        if (scratchLength == 0 || scratchLength > 18) return false;
+        long id = 0;
+        for (int i = 0; i < scratchLength; i++) {
+            int digit = scratch[i] - '0';
+            if (digit < 0 || digit > 9) return false;
+            id = id * 10 + digit;
+        }
+        row.id = id;
+        row.idWidth = scratchLength;
+        return true;
+    }
+
+    // Returns -1 unless the field is a whole number from 0 to 100
+    private int parseScore() {
+        if (scratchLength == 0 || scratchLength > 3) return -1;
+        int score = 0;
+        for (int i = 0; i < scratchLength; i++) {
+            int digit = scratch[i] - '0';
+            if (digit < 0 || digit > 9) return -1;
+            score = score * 10 + digit;
+        }
+        return score <= 100 ? score : -1;
+    }
+
+    private boolean isHeader() {
+        String header = RecordsTableModel.COLUMN_NAMES[RecordsTableModel.ID_COLUMN];
+        if (scratchLength != header.length()) return false;
+        for (int i = 0; i < scratchLength; i++) {
+            if (Character.toLowerCase((char) scratch[i]) != Character.toLowerCase(header.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private void append(byte b) {
+        if (scratchLength == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        }
+        scratch[scratchLength++] = b;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
@@ -0,0 +1,77 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Growable list of primitive ints, used for index posting lists
+public class IntList {
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(4);
+    }
+
+    public IntList(int capacity) {
+        values = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int last() {
+        return values[size - 1];
+    }
+
+    // Inserts value into a list kept in ascending order
+    public void addSorted(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) index = -index - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+
+    // Removes one occurrence of value from a list kept in ascending order
+    public boolean removeSorted(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) return false;
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    // Removes every value whose bit is set from a list kept in ascending order, in one
+    // pass from the first removed value on; returns how many were removed
+    public int removeAll(BitSet removed) {
+        int first = removed.nextSetBit(0);
+        if (first < 0) return 0;
+        int write = Arrays.binarySearch(values, 0, size, first);
+        if (write < 0) write = -write - 1;
+        for (int read = write; read < size; read++) {
+            if (!removed.get(values[read])) values[write++] = values[read];
+        }
+        int count = size - write;
+        size = write;
+        return count;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -1,18 +1,47 @@
 // Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableRowSorter;
 import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.swing.RowFilter;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 public class JAVA extends JFrame {
-    private final DefaultTableModel model;
+    // Rows handed to the table per model event while loading or importing
+    private static final int BATCH_ROWS = 16384;
+
+    private final RecordsTableModel model;
     private final JTable table;
-    private final TableRowSorter<DefaultTableModel> sorter;
+    private final RecordsRowSorter sorter;
     private final JTextField searchField;
     private final JTextField idField;
     private final JTextField firstNameField;
@@ -22,25 +51,51 @@ public class JAVA extends JFrame {
     private final JTextField lab3Field;
     private final JTextField examField;
     private final JTextField attendanceField;
+    private final JProgressBar loadProgress;
+    private final JLabel statusLabel;
+    private final JButton cancelLoadBtn;
+    private SwingWorker<?, ?> loader; // load, import or conversion behind the progress bar
+    private RecordJournal journal;
+    private boolean loadComplete;
+    private Path csvSource;  // the single CSV being viewed, null for merged sections
+    private long loadedBytes; // how much of csvSource the table reflects
+    private Object loadedIdentity; // RecordsTail.identity of csvSource when it was loaded
+    private RecordsTail tail; // follows rows appended to csvSource while "Watch file" is on
+    private final JCheckBox watchBox;
+    private AttendanceFeed attendanceFeed; // fills ATTENDANCE GRADE from the check-in journal
+    private final SearchIndex searchIndex;
+    private final ScoreIndex scoreIndex;
+    private final ColumnStats columnStats;
+    private StatisticsDialog statisticsDialog;
+    private final Timer searchDebounce;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "records-search");
+        t.setDaemon(true);
+        return t;
+    });
+    private Future<?> pendingSearch;
+    private int searchGeneration;
 
     public JAVA() {
+        this(List.of());
+    }
+
+    // With section files the table shows all of them merged, instead of the default CSV
+    public JAVA(List<Path> sections) {
         this.setTitle("Records - Hadap, Christian Jorge A - 22-1279-759");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(1000, 600);
         setLocationRelativeTo(null);
 
-        model = new DefaultTableModel(new Object[]{
-                "StudentID",
-                "first_name",
-                "last_name",
-                "LAB WORK 1",
-                "LAB WORK 2",
-                "LAB WORK 3",
-                "PRELIM EXAM",
-                "ATTENDANCE GRADE"
-        }, 0);
+        model = new RecordsTableModel();
+        searchIndex = new SearchIndex(model, searchExecutor);
+        model.addRecordsListener(searchIndex);
+        scoreIndex = new ScoreIndex(model);
+        model.addRecordsListener(scoreIndex);
+        columnStats = new ColumnStats(model);
+        model.addRecordsListener(columnStats);
         table = new JTable(model);
-        sorter = new TableRowSorter<>(model);
+        sorter = new RecordsRowSorter(model);
         table.setRowSorter(sorter);
         JScrollPane scrollPane = new JScrollPane(table);
 
@@ -106,7 +161,8 @@ public class JAVA extends JFrame {
         inputPanel.add(new JLabel("Search:"), gbc);
         gbc.gridx = 1;
         searchField = new JTextField(12);
-        searchField.setToolTipText("Search by StudentID, Name, or any field");
+        searchField.setToolTipText("<html>Search by StudentID or name, or filter scores, e.g.<br>"
+                + "PRELIM EXAM &lt; 50<br>ATTENDANCE GRADE between 70 and 80 and LAB WORK 1 &gt;= 75</html>");
         inputPanel.add(searchField, gbc);
         
         gbc.gridx = 2;
@@ -121,28 +177,131 @@ public class JAVA extends JFrame {
         JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         JButton addBtn = new JButton("Add");
         JButton delBtn = new JButton("Delete");
+        JButton importBtn = new JButton("Import CSV...");
+        JButton archiveBtn = new JButton("Open Archive...");
+        JButton exportBtn = new JButton("Export...");
         btnPanel.add(addBtn);
         btnPanel.add(delBtn);
+        btnPanel.add(importBtn);
+        btnPanel.add(archiveBtn);
+        btnPanel.add(exportBtn);
+        JButton statsBtn = new JButton("Statistics");
+        btnPanel.add(statsBtn);
+        JButton attendanceBtn = new JButton("Attendance...");
+        attendanceBtn.setToolTipText("Grade attendance from the check-in journal folder of the attendance tracker");
+        btnPanel.add(attendanceBtn);
+        watchBox = new JCheckBox("Watch file");
+        watchBox.setToolTipText("Add rows appended to the CSV by other programs as they arrive");
+        watchBox.setEnabled(false);
+        btnPanel.add(watchBox);
         gbc.gridx = 0; gbc.gridy = 5; gbc.gridwidth = 4;
         inputPanel.add(btnPanel, gbc);
 
+        // Status bar (CSV loading progress)
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statusLabel = new JLabel("Ready");
+        loadProgress = new JProgressBar(0, 100);
+        loadProgress.setStringPainted(true);
+        loadProgress.setVisible(false);
+        cancelLoadBtn = new JButton("Cancel Load");
+        cancelLoadBtn.setVisible(false);
+        statusPanel.add(statusLabel);
+        statusPanel.add(loadProgress);
+        statusPanel.add(cancelLoadBtn);
+
+        add(statusPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
         add(inputPanel, BorderLayout.SOUTH);
 
         addBtn.addActionListener(e -> addRecord());
         delBtn.addActionListener(e -> deleteSelected());
+        importBtn.addActionListener(e -> importCsv());
+        archiveBtn.addActionListener(e -> chooseArchive());
+        exportBtn.addActionListener(e -> exportView());
+        statsBtn.addActionListener(e -> showStatistics());
+        attendanceBtn.addActionListener(e -> chooseAttendance());
+        watchBox.addActionListener(e -> {
+            if (watchBox.isSelected()) {
+                if (loadComplete) startTail(); // otherwise started once the load finishes
+            } else {
+                stopTail();
+                compactJournalIfNeeded();
+            }
+        });
+        // Ctrl+V on the table appends pasted CSV (or spreadsheet) rows
+        table.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(KeyEvent.VK_V,
+                Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()), "pasteRecords");
+        table.getActionMap().put("pasteRecords", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                pasteRecords();
+            }
+        });
+        // Ctrl+Shift+M shows the latency summary gathered so far
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_M,
+                Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx() | KeyEvent.SHIFT_DOWN_MASK), "showMetrics");
+        getRootPane().getActionMap().put("showMetrics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                JTextArea text = new JTextArea(RecordsMetrics.summary());
+                text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+                text.setEditable(false);
+                JOptionPane.showMessageDialog(JAVA.this, new JScrollPane(text), "Metrics",
+                        JOptionPane.PLAIN_MESSAGE);
+            }
+        });
+        cancelLoadBtn.addActionListener(e -> {
+            if (loader != null) loader.cancel(false);
+        });
         
         // Search functionality
         searchBtn.addActionListener(e -> performSearch());
         clearSearchBtn.addActionListener(e -> clearSearch());
-        searchField.addKeyListener(new java.awt.event.KeyAdapter() {
+        // Typing only searches once the user pauses
+        searchDebounce = new Timer(150, e -> performSearch());
+        searchDebounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+        });
+        // Rows appended while a search is active are checked against it too
+        model.addTableModelListener(e -> {
+            if (e.getType() == TableModelEvent.INSERT && !searchField.getText().trim().isEmpty()) {
+                searchDebounce.restart();
+            }
+        });
+
+        // Entries still queued for the journal reach the disk before the JVM exits
+        addWindowListener(new WindowAdapter() {
             @Override
-            public void keyReleased(java.awt.event.KeyEvent e) {
-                performSearch();
+            public void windowClosing(WindowEvent e) {
+                stopTail();
+                if (attendanceFeed != null) attendanceFeed.stop();
+                if (journal != null) journal.close();
             }
         });
 
-        loadCsvOnStartup();
+        if (sections.isEmpty()) {
+            loadCsvOnStartup();
+        } else if (sections.size() == 1) {
+            loadCsv(sections.get(0));
+        } else {
+            // Edits are not journaled here: they do not belong to any one section file
+            runWithProgress(new ImportWorker(sections.size() + " section files", sections, null),
+                    "Loading " + sections.size() + " section files...");
+        }
     }
 
     private void loadCsvOnStartup() {
@@ -155,36 +314,527 @@ public class JAVA extends JFrame {
                 Paths.get("..", "class_records.csv").toString()
         };
 
-        boolean loaded = false;
+        Path source = null;
         for (String fileName : candidates) {
-            try {
-                Files.lines(Paths.get(fileName)).forEach(line -> {
-                    String trimmed = line.trim();
-                    if (trimmed.isEmpty()) return;
-                    String[] parts = trimmed.split(",");
-                    String firstCell = parts[0].trim().replace("\"", "");
-                    if (firstCell.equalsIgnoreCase("StudentID")) return; // skip header
-                    if (parts.length >= 8) {
-                        Object[] row = new Object[8];
-                        for (int i = 0; i < 8; i++) {
-                            row[i] = parts[i].trim().replace("\"", "");
-                        }
-                        model.addRow(row);
-                    }
-                });
-                loaded = true;
+            Path candidate = Paths.get(fileName);
+            if (Files.isRegularFile(candidate) && Files.isReadable(candidate)) {
+                source = candidate;
                 break;
-            } catch (IOException ignored) {
             }
         }
 
-        if (!loaded) {
+        if (source == null) {
             JOptionPane.showMessageDialog(
                     this,
                     "Unable to read CSV. Tried MOCK_DATA.csv and class_records.csv in current and parent folder",
                     "File Read Error",
                     JOptionPane.ERROR_MESSAGE
             );
+            return;
+        }
+        loadCsv(source);
+    }
+
+    private void loadCsv(Path source) {
+        csvSource = source;
+        watchBox.setEnabled(true);
+        try {
+            journal = RecordJournal.open(source);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Unable to open the journal for " + source.getFileName() + ": " + e.getMessage()
+                            + "\nChanges made in this session will not be saved.",
+                    "Journal Error",
+                    JOptionPane.WARNING_MESSAGE
+            );
+        }
+
+        runWithProgress(new CsvLoadWorker(source), "Loading " + source.getFileName() + "...");
+    }
+
+    // Runs a load or import behind the progress bar and its Cancel button
+    private void runWithProgress(SwingWorker<?, ?> worker, String status) {
+        loader = worker;
+        statusLabel.setText(status);
+        loadProgress.setValue(0);
+        loadProgress.setVisible(true);
+        cancelLoadBtn.setVisible(true);
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                loadProgress.setValue((Integer) e.getNewValue());
+            }
+        });
+        worker.execute();
+    }
+
+    // Reads the CSV off the Event Dispatch Thread and hands rows to the table in batches
+    private class CsvLoadWorker extends SwingWorker<Integer, RecordColumns> {
+        private final Path source;
+        private int skipped;
+        private int duplicates; // rows whose StudentID was already loaded
+        private RecordColumns snapshot; // set when the rows come from <csv>.snap
+        private RecordColumns appended; // rows appended to the CSV after a compacted snapshot
+        private long consumed; // bytes of the CSV behind the loaded rows
+        private Object identity;
+        private final RecordsMetrics.LoadEvent loadEvent = new RecordsMetrics.LoadEvent();
+        private long started;
+
+        CsvLoadWorker(Path source) {
+            this.source = source;
+        }
+
+        @Override
+        protected Integer doInBackground() throws IOException {
+            loadEvent.begin();
+            started = System.nanoTime();
+            identity = RecordsTail.identity(source);
+            long csvSize = Files.size(source);
+            long csvModified = Files.getLastModifiedTime(source).toMillis();
+            // Rows deleted in an earlier session are still in the CSV until the journal is compacted
+            Set<Long> deleted = journal != null ? journal.deletedIds() : Collections.emptySet();
+
+            Path snapshotPath = RecordSnapshot.pathFor(source);
+            RecordColumns columns = null;
+            long snapshotBytes = csvSize;
+            try {
+                long[] header = RecordSnapshot.header(snapshotPath);
+                if (header != null && header[0] == csvSize && header[1] == csvModified) {
+                    columns = RecordSnapshot.read(snapshotPath, csvSize, csvModified, model.names());
+                } else if (header != null && header[2] > 0
+                        && RecordJournal.appliesTo(header[0], header[1], csvSize, csvModified)) {
+                    // A compacted snapshot holds edits the CSV lacks: only the rows
+                    // appended to the CSV since are parsed on top of it
+                    columns = RecordSnapshot.read(snapshotPath, header[0], header[1], model.names());
+                    snapshotBytes = header[0];
+                }
+            } catch (IOException e) {
+                columns = null; // unreadable snapshot, parse the CSV instead
+            }
+            if (columns != null) {
+                RecordColumns mapped = columns;
+                if (!deleted.isEmpty()) mapped.retain(i -> !deleted.contains(mapped.ids[i]));
+                duplicates = mapped.dropDuplicateIds();
+                snapshot = mapped;
+                consumed = csvSize;
+                int rows = mapped.size() + duplicates; // counted like the CSV path, before duplicates are dropped
+                if (snapshotBytes < csvSize) {
+                    CsvRecordParser parser = new CsvRecordParser(model.names());
+                    RecordColumns grown = new RecordColumns(1024);
+                    consumed = parser.parse(source, snapshotBytes, row -> {
+                        grown.add(row);
+                        return !isCancelled();
+                    });
+                    if (!deleted.isEmpty()) grown.retain(i -> !deleted.contains(grown.ids[i]));
+                    skipped = parser.invalidRows();
+                    appended = grown;
+                    rows += grown.size();
+                }
+                setProgress(100);
+                return rows;
+            }
+
+            long totalBytes = Math.max(1, csvSize);
+            CsvRecordParser parser = new CsvRecordParser(model.names());
+            // Every parsed row is kept for the snapshot; batches are copied out of it
+            RecordColumns parsed = new RecordColumns(4096);
+            int[] progress = new int[2]; // rows published so far, rows of parsed already published
+            consumed = parser.parse(source, row -> {
+                parsed.add(row);
+                if (parsed.size() - progress[1] == BATCH_ROWS) {
+                    progress[0] += publishFrom(parsed, progress[1], deleted);
+                    progress[1] = parsed.size();
+                    setProgress((int) Math.min(100, parser.position() * 100 / totalBytes));
+                }
+                return !isCancelled();
+            });
+            if (!isCancelled()) progress[0] += publishFrom(parsed, progress[1], deleted);
+            skipped = parser.invalidRows();
+            if (!isCancelled() && Files.size(source) == csvSize
+                    && Files.getLastModifiedTime(source).toMillis() == csvModified) {
+                try {
+                    RecordSnapshot.write(snapshotPath, csvSize, csvModified, parsed, model.names());
+                } catch (IOException ignored) {
+                    // The snapshot only speeds up the next start; the CSV is still the source of truth
+                }
+            }
+            return progress[0];
+        }
+
+        private void recordLoad(int rows) {
+            RecordsMetrics.histogram("load").record(System.nanoTime() - started);
+            RecordsMetrics.count("load.rows", rows);
+            RecordsMetrics.count("load.bytes", consumed);
+            loadEvent.end();
+            if (loadEvent.shouldCommit()) {
+                loadEvent.file = source.toString();
+                loadEvent.rows = rows;
+                loadEvent.bytes = consumed;
+                loadEvent.fromSnapshot = snapshot != null;
+                loadEvent.commit();
+            }
+        }
+
+        // Publishes the rows parsed since position from, minus the journaled deletes
+        private int publishFrom(RecordColumns parsed, int from, Set<Long> deleted) {
+            RecordColumns batch = parsed.copyOf(from, parsed.size());
+            if (!deleted.isEmpty()) batch.retain(i -> !deleted.contains(batch.ids[i]));
+            publish(batch);
+            return batch.size();
+        }
+
+        @Override
+        protected void process(List<RecordColumns> batches) {
+            // Rows published after a cancel are dropped so the table stops growing immediately
+            if (isCancelled()) return;
+            for (RecordColumns batch : batches) {
+                duplicates += model.appendColumns(batch);
+            }
+            statusLabel.setText("Loading " + source.getFileName() + "... " + model.getRowCount() + " rows");
+        }
+
+        @Override
+        protected void done() {
+            loadProgress.setVisible(false);
+            cancelLoadBtn.setVisible(false);
+            if (snapshot != null && !isCancelled()) duplicates += model.appendColumns(snapshot);
+            if (appended != null && !isCancelled()) duplicates += model.appendColumns(appended);
+            // A cancelled load (e.g. superseded by a reload) must not get journal rows on
+            // top of its partial table
+            int replayed = 0;
+            if (journal != null && !isCancelled()) {
+                for (RecordJournal.Entry entry : journal.addedRecords()) {
+                    if (model.containsId(entry.id)) continue;
+                    model.addRecord(entry.id, entry.idWidth, entry.firstName, entry.lastName, entry.scores);
+                    replayed++;
+                }
+            }
+            try {
+                int loaded = get() - duplicates + replayed;
+                recordLoad(loaded);
+                statusLabel.setText("Loaded " + loaded + " rows from " + source.getFileName()
+                        + (skipped > 0 ? " (" + skipped + " invalid rows skipped)" : "")
+                        + (duplicates > 0 ? " (" + duplicates + " duplicate StudentIDs skipped)" : ""));
+                // Only a complete table may be compacted into the snapshot
+                loadComplete = true;
+                loadedBytes = consumed;
+                loadedIdentity = identity;
+                if (watchBox.isSelected()) startTail();
+                compactJournalIfNeeded();
+            } catch (CancellationException e) {
+                statusLabel.setText("Load cancelled after " + model.getRowCount() + " rows");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                statusLabel.setText("Load failed");
+                JOptionPane.showMessageDialog(
+                        JAVA.this,
+                        "Unable to read " + source + ": " + e.getCause().getMessage(),
+                        "File Read Error",
+                        JOptionPane.ERROR_MESSAGE
+                );
+            }
+        }
+    }
+
+    // Imports one or more CSV files; a chosen directory contributes all of its *.csv files
+    private void importCsv() {
+        JFileChooser chooser = new JFileChooser(".");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        chooser.setMultiSelectionEnabled(true);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        List<Path> files = new ArrayList<>();
+        try {
+            for (File selected : chooser.getSelectedFiles()) {
+                files.addAll(SectionLoader.resolve(selected.getPath()));
+            }
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Unable to list " + e.getMessage(), "Import Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (files.isEmpty()) {
+            statusLabel.setText("No CSV files selected");
+            return;
+        }
+        String description = files.size() == 1 ? files.get(0).getFileName().toString() : files.size() + " files";
+        runInBackground(new ImportWorker(description, files, null), "Importing " + description + "...");
+    }
+
+    // Writes the rows as currently shown (search filter and sort order applied)
+    private void exportView() {
+        JFileChooser chooser = new JFileChooser(".");
+        FileNameExtensionFilter csvFilter = new FileNameExtensionFilter("CSV (*.csv, *.csv.gz)", "csv", "gz");
+        FileNameExtensionFilter jsonFilter = new FileNameExtensionFilter("JSON Lines (*.jsonl, *.jsonl.gz)", "jsonl", "gz");
+        chooser.addChoosableFileFilter(csvFilter);
+        chooser.addChoosableFileFilter(jsonFilter);
+        chooser.setFileFilter(csvFilter);
+        chooser.setSelectedFile(new File("records.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        String name = file.getFileName().toString().toLowerCase();
+        if (!name.contains(".")) {
+            file = file.resolveSibling(file.getFileName() + (chooser.getFileFilter() == jsonFilter ? ".jsonl" : ".csv"));
+        }
+        if (Files.exists(file) && JOptionPane.showConfirmDialog(this, file.getFileName() + " exists. Replace it?",
+                "Export", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        // The view order is taken here on the Event Dispatch Thread. The writer then has
+        // the rows copied back on this thread a chunk at a time, and stops if the model
+        // was cleared meanwhile, since its slot numbers no longer name these rows.
+        int[] slots = new int[table.getRowCount()];
+        for (int row = 0; row < slots.length; row++) {
+            slots[row] = model.slotAt(table.convertRowIndexToModel(row));
+        }
+        Path target = file;
+        int generation = model.generation();
+        RecordExporter exporter = new RecordExporter(model.names(), RecordExporter.Format.of(target));
+        RecordExporter.RowSource source = (from, count) -> {
+            RecordColumns[] chunk = new RecordColumns[1];
+            try {
+                SwingUtilities.invokeAndWait(() -> {
+                    if (model.generation() == generation) chunk[0] = model.copySlots(slots, from, from + count);
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            } catch (InvocationTargetException e) {
+                throw new IOException(e.getCause());
+            }
+            if (chunk[0] == null) throw new IOException("The records were cleared during the export");
+            return chunk[0];
+        };
+        SwingWorker<Integer, Void> writer = new SwingWorker<>() {
+            @Override
+            protected Integer doInBackground() throws IOException {
+                return exporter.export(source, slots.length, target, written -> {
+                    setProgress((int) ((long) written * 100 / Math.max(1, slots.length)));
+                    return !isCancelled();
+                });
+            }
+
+            @Override
+            protected void done() {
+                if (loader == this) {
+                    loadProgress.setVisible(false);
+                    cancelLoadBtn.setVisible(false);
+                }
+                if (isCancelled()) {
+                    statusLabel.setText("Export cancelled");
+                    return;
+                }
+                try {
+                    statusLabel.setText("Exported " + get() + " rows to " + target.getFileName());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    statusLabel.setText("Export failed");
+                    JOptionPane.showMessageDialog(JAVA.this, "Unable to write " + target + ": "
+                            + e.getCause().getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        runInBackground(writer, "Exporting " + slots.length + " rows to " + target.getFileName() + "...");
+    }
+
+    // Shows the worker's progress unless a load already owns the progress bar
+    private void runInBackground(SwingWorker<?, ?> worker, String status) {
+        if (loader != null && !loader.isDone()) {
+            worker.execute();
+        } else {
+            runWithProgress(worker, status);
+        }
+    }
+
+    // Browses a CSV too large for memory: converted once to <csv>.rows, then paged from disk
+    private void chooseArchive() {
+        JFileChooser chooser = new JFileChooser(".");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files and record archives", "csv", "rows"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        openArchive(chooser.getSelectedFile().toPath());
+    }
+
+    void openArchive(Path file) {
+        if (file.getFileName().toString().endsWith(".rows")) {
+            showArchive(file);
+            return;
+        }
+        Path archive = RecordArchive.pathFor(file);
+        try {
+            if (RecordArchive.isCurrent(archive, file)) {
+                showArchive(archive);
+                return;
+            }
+        } catch (IOException e) {
+            // Unreadable archive: convert the CSV again
+        }
+        SwingWorker<Integer, Void> converter = new SwingWorker<>() {
+            @Override
+            protected Integer doInBackground() throws IOException {
+                return RecordArchive.convert(file, archive, percent -> {
+                    setProgress(percent);
+                    return !isCancelled();
+                });
+            }
+
+            @Override
+            protected void done() {
+                if (loader == this) {
+                    loadProgress.setVisible(false);
+                    cancelLoadBtn.setVisible(false);
+                }
+                if (isCancelled()) {
+                    statusLabel.setText("Archive conversion cancelled");
+                    return;
+                }
+                try {
+                    statusLabel.setText("Converted " + get() + " rows into " + archive.getFileName());
+                    showArchive(archive);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    statusLabel.setText("Archive conversion failed");
+                    JOptionPane.showMessageDialog(JAVA.this, "Unable to convert " + file + ": "
+                            + e.getCause().getMessage(), "Archive Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        runInBackground(converter, "Converting " + file.getFileName() + " to an archive...");
+    }
+
+    private void showArchive(Path archive) {
+        try {
+            ArchiveViewer viewer = new ArchiveViewer(archive);
+            viewer.setLocationRelativeTo(this);
+            viewer.setVisible(true);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Unable to open " + archive + ": " + e.getMessage(),
+                    "Archive Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void pasteRecords() {
+        String text;
+        try {
+            text = (String) Toolkit.getDefaultToolkit().getSystemClipboard().getData(DataFlavor.stringFlavor);
+        } catch (UnsupportedFlavorException | IOException | IllegalStateException e) {
+            statusLabel.setText("Nothing to paste");
+            return;
+        }
+        // Cells copied from a spreadsheet arrive tab separated
+        if (text.indexOf(',') < 0) text = text.replace('\t', ',');
+        new ImportWorker("clipboard", List.of(), text.getBytes(StandardCharsets.UTF_8)).execute();
+    }
+
+    // Parses extra records from CSV files or pasted text and appends them in batches.
+    // Several files (e.g. one per class section) are parsed concurrently on a pool
+    // bounded by the core count.
+    private class ImportWorker extends SwingWorker<Integer, RecordColumns> {
+        private final String description;
+        private final List<Path> files; // empty when importing text
+        private final byte[] text;
+        private RecordColumns batch = new RecordColumns(BATCH_ROWS);
+        private int skipped;
+        private int duplicates;
+        private int added;
+
+        ImportWorker(String description, List<Path> files, byte[] text) {
+            this.description = description;
+            this.files = files;
+            this.text = text;
+        }
+
+        @Override
+        protected Integer doInBackground() throws IOException, InterruptedException {
+            if (files.size() > 1) return importSections();
+            CsvRecordParser parser = new CsvRecordParser(model.names());
+            CsvRecordParser.RecordSink sink = row -> {
+                batch.add(row);
+                if (batch.size() == BATCH_ROWS) {
+                    publish(batch);
+                    batch = new RecordColumns(BATCH_ROWS);
+                }
+                return !isCancelled();
+            };
+            if (!files.isEmpty()) {
+                parser.parse(files.get(0), sink);
+            } else {
+                parser.parse(ByteBuffer.wrap(text), true, sink);
+            }
+            publish(batch);
+            skipped = parser.invalidRows();
+            return 0;
+        }
+
+        private Integer importSections() throws IOException, InterruptedException {
+            int threads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+            ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "section-loader");
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                List<Future<RecordColumns>> parsed = new ArrayList<>();
+                for (Path file : files) {
+                    parsed.add(pool.submit(() -> SectionLoader.parse(file, model.names())));
+                }
+                // Merged in file order, so the first file listing a StudentID keeps it
+                for (int i = 0; i < files.size() && !isCancelled(); i++) {
+                    RecordColumns section = parsed.get(i).get();
+                    skipped += section.invalidRows;
+                    publish(section);
+                    setProgress((i + 1) * 100 / files.size());
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+            return 0;
+        }
+
+        @Override
+        protected void process(List<RecordColumns> batches) {
+            for (RecordColumns records : batches) {
+                int firstSlot = model.slotCount();
+                duplicates += model.appendColumns(records);
+                for (int slot = firstSlot; slot < model.slotCount(); slot++) {
+                    if (journal != null) journal.logAdd(model, slot);
+                    added++;
+                }
+            }
+            statusLabel.setText("Importing " + description + "... " + added + " rows");
+        }
+
+        @Override
+        protected void done() {
+            if (loader == this) {
+                loadProgress.setVisible(false);
+                cancelLoadBtn.setVisible(false);
+            }
+            try {
+                get();
+                statusLabel.setText("Imported " + added + " rows from " + description
+                        + (skipped > 0 ? " (" + skipped + " invalid rows skipped)" : "")
+                        + (duplicates > 0 ? " (" + duplicates + " duplicate StudentIDs skipped)" : ""));
+                compactJournalIfNeeded();
+            } catch (CancellationException e) {
+                statusLabel.setText("Import cancelled after " + added + " rows");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                statusLabel.setText("Import failed");
+                JOptionPane.showMessageDialog(
+                        JAVA.this,
+                        "Unable to import " + description + ": " + e.getCause().getMessage(),
+                        "Import Error",
+                        JOptionPane.ERROR_MESSAGE
+                );
+            }
         }
     }
 
@@ -201,7 +851,20 @@ public class JAVA extends JFrame {
             JOptionPane.showMessageDialog(this, "Please fill all fields.");
             return;
         }
-        model.addRow(new Object[]{id, first, last, lab1, lab2, lab3, exam, attendance});
+        RecordsMetrics.EditEvent event = new RecordsMetrics.EditEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            model.addRow(new Object[]{id, first, last, lab1, lab2, lab3, exam, attendance});
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage());
+            return;
+        }
+        if (journal != null) {
+            journal.logAdd(model, model.slotAt(model.getRowCount() - 1));
+            compactJournalIfNeeded();
+        }
+        recordEdit(event, "add", 1, start);
         idField.setText("");
         firstNameField.setText("");
         lastNameField.setText("");
@@ -213,34 +876,254 @@ public class JAVA extends JFrame {
     }
 
     private void deleteSelected() {
-        int row = table.getSelectedRow();
-        if (row >= 0) {
-            model.removeRow(row);
+        int[] selected = table.getSelectedRows();
+        if (selected.length > 0) {
+            RecordsMetrics.EditEvent event = new RecordsMetrics.EditEvent();
+            event.begin();
+            long start = System.nanoTime();
+            // Selection is in view order; the sorter maps it back to model rows
+            int[] rows = new int[selected.length];
+            for (int i = 0; i < selected.length; i++) {
+                rows[i] = table.convertRowIndexToModel(selected[i]);
+                if (journal != null) journal.logDelete(model, model.slotAt(rows[i]));
+            }
+            model.removeRows(rows);
+            compactJournalIfNeeded();
+            recordEdit(event, "delete", rows.length, start);
         } else {
             JOptionPane.showMessageDialog(this, "Select a row to delete.");
         }
     }
 
+    // Reads only what is appended to the CSV from here on
+    private void startTail() {
+        try {
+            tail = new RecordsTail(csvSource, loadedIdentity, loadedBytes, model.names(), new RecordsTail.Listener() {
+                @Override
+                public void recordsAppended(RecordColumns records, long offset) {
+                    // Kept so watching again (or compacting) starts where this left off
+                    loadedBytes = offset;
+                    int count = records.size();
+                    if (count == 0) return;
+                    int duplicates = model.appendColumns(records);
+                    statusLabel.setText((count - duplicates) + " new rows from " + csvSource.getFileName()
+                            + (duplicates > 0 ? " (" + duplicates + " duplicate StudentIDs skipped)" : "")
+                            + ", " + model.getRowCount() + " rows in total");
+                }
+
+                @Override
+                public void fileReplaced() {
+                    reloadCsv();
+                }
+            });
+            tail.start();
+        } catch (IOException e) {
+            tail = null;
+            watchBox.setSelected(false);
+            statusLabel.setText("Unable to watch " + csvSource.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private void chooseAttendance() {
+        JFileChooser chooser = new JFileChooser(".");
+        chooser.setDialogTitle("Check-in journal folder");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        followAttendance(chooser.getSelectedFile().toPath(), null, null);
+    }
+
+    // Grades ATTENDANCE GRADE from the check-ins in directory between first and last
+    // (either may be null), replacing any journal followed before
+    void followAttendance(Path directory, LocalDate first, LocalDate last) {
+        if (attendanceFeed != null) attendanceFeed.stop();
+        attendanceFeed = new AttendanceFeed(model, directory, null, first, last, (sessions, changedRows) ->
+                statusLabel.setText("Attendance: " + sessions + (sessions == 1 ? " session, " : " sessions, ")
+                        + changedRows + " grades updated from " + directory.getFileName()));
+        try {
+            attendanceFeed.start();
+            statusLabel.setText("Reading check-ins from " + directory.getFileName() + "...");
+        } catch (IOException e) {
+            attendanceFeed.stop();
+            attendanceFeed = null;
+            statusLabel.setText("Unable to read check-ins: " + e.getMessage());
+        }
+    }
+
+    private void stopTail() {
+        if (tail == null) return;
+        tail.stop();
+        tail = null;
+    }
+
+    // The watched CSV was truncated or rotated: the table no longer matches any
+    // prefix of it, so everything is read again
+    private void reloadCsv() {
+        stopTail();
+        if (loader != null) loader.cancel(false);
+        if (journal != null) journal.close();
+        journal = null;
+        loadComplete = false;
+        model.clear();
+        statusLabel.setText(csvSource.getFileName() + " was replaced, reloading...");
+        loadCsv(csvSource);
+    }
+
+    private static void recordEdit(RecordsMetrics.EditEvent event, String kind, int rows, long start) {
+        RecordsMetrics.histogram("edit." + kind).record(System.nanoTime() - start);
+        RecordsMetrics.count("edit." + kind + ".rows", rows);
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    // Folds the journal into the CSV's snapshot once it has grown, on a background thread
+    private void compactJournalIfNeeded() {
+        if (journal == null) return;
+        IOException failure = journal.failure();
+        if (failure != null) {
+            statusLabel.setText("Journal write failed: " + failure.getMessage());
+            return;
+        }
+        if (!loadComplete || !journal.needsCompaction()) return;
+        // The snapshot stands for the first loadedBytes of the CSV as it is now; a
+        // replaced CSV is reloaded once noticed instead
+        long modified;
+        try {
+            if (!RecordsTail.identity(csvSource).equals(loadedIdentity) || Files.size(csvSource) < loadedBytes) return;
+            modified = Files.getLastModifiedTime(csvSource).toMillis();
+        } catch (IOException e) {
+            return;
+        }
+        int[] slots = new int[model.getRowCount()];
+        for (int row = 0; row < slots.length; row++) {
+            slots[row] = model.slotAt(row);
+        }
+        RecordColumns rows = model.copySlots(slots); // the model may be cleared while the snapshot is written
+        journal.compact(rows, model.names(), loadedBytes, modified).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() ->
+                statusLabel.setText(error == null ? "Saved " + slots.length + " rows"
+                        : "Journal compaction failed: " + ioCause(error).getMessage())));
+    }
+
+    // The IOException behind a failed future, rather than the wrappers around it
+    private static Throwable ioCause(Throwable error) {
+        Throwable cause = error;
+        while (!(cause instanceof IOException) && cause.getCause() != null) cause = cause.getCause();
+        return cause;
+    }
+
+    private void showStatistics() {
+        if (statisticsDialog == null || !statisticsDialog.isDisplayable()) {
+            statisticsDialog = new StatisticsDialog(this, model, sorter, columnStats);
+        }
+        statisticsDialog.setVisible(true);
+        statisticsDialog.toFront();
+    }
+
     private void performSearch() {
+        searchDebounce.stop();
         String searchText = searchField.getText().trim();
+        int generation = ++searchGeneration;
+        if (pendingSearch != null) pendingSearch.cancel(true);
         if (searchText.isEmpty()) {
+            pendingSearch = null;
             sorter.setRowFilter(null);
-        } else {
+            return;
+        }
+        // Latency is from the request to the filtered view, queueing included
+        RecordsMetrics.SearchEvent event = new RecordsMetrics.SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        pendingSearch = searchExecutor.submit(() -> {
+            BitSet matches;
+            boolean scoreQuery;
             try {
-                RowFilter<DefaultTableModel, Integer> rf = RowFilter.regexFilter("(?i)" + java.util.regex.Pattern.quote(searchText));
-                sorter.setRowFilter(rf);
-            } catch (java.util.regex.PatternSyntaxException e) {
-                sorter.setRowFilter(null);
+                RecordQuery query = RecordQuery.parse(searchText);
+                scoreQuery = query != null;
+                matches = scoreQuery ? scoreIndex.evaluate(query) : searchIndex.search(searchText);
+            } catch (CancellationException superseded) {
+                return;
+            } catch (IllegalArgumentException badQuery) {
+                SwingUtilities.invokeLater(() -> {
+                    if (generation == searchGeneration) statusLabel.setText(badQuery.getMessage());
+                });
+                return;
             }
-        }
+            SwingUtilities.invokeLater(() -> {
+                // A newer query was typed while this one ran
+                if (generation != searchGeneration) return;
+                statusLabel.setText(matches.cardinality() + " matching records");
+                sorter.setRowFilter(new RowFilter<RecordsTableModel, Integer>() {
+                    @Override
+                    public boolean include(Entry<? extends RecordsTableModel, ? extends Integer> entry) {
+                        return matches.get(model.slotAt(entry.getIdentifier()));
+                    }
+                });
+                RecordsMetrics.histogram("search").record(System.nanoTime() - start);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.query = searchText;
+                    event.scoreQuery = scoreQuery;
+                    event.matches = matches.cardinality();
+                    event.commit();
+                }
+            });
+        });
     }
 
     private void clearSearch() {
         searchField.setText("");
-        sorter.setRowFilter(null);
+        performSearch();
     }
 
+    // Arguments are section CSV files, directories or globs (e.g. sections/*.csv),
+    // optionally --archive FILE to also browse a large CSV or .rows archive from disk,
+    // and --attendance DIR [--term FIRST:LAST] to grade attendance from the tracker's
+    // check-in journal (ISO dates, e.g. --term 2026-08-10:2026-10-16)
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new JAVA().setVisible(true));
+        List<Path> sections = new ArrayList<>();
+        Path archive = null;
+        Path attendance = null;
+        LocalDate[] term = new LocalDate[2];
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--archive") && i + 1 < args.length) {
+                archive = Paths.get(args[++i]);
+                continue;
+            }
+            if (arg.equals("--attendance") && i + 1 < args.length) {
+                attendance = Paths.get(args[++i]);
+                continue;
+            }
+            if (arg.equals("--term") && i + 1 < args.length) {
+                String[] dates = args[++i].split(":", -1);
+                try {
+                    term[0] = dates[0].isEmpty() ? null : LocalDate.parse(dates[0]);
+                    term[1] = dates.length < 2 || dates[1].isEmpty() ? null : LocalDate.parse(dates[1]);
+                } catch (DateTimeParseException e) {
+                    System.err.println("Term must be FIRST:LAST as ISO dates, e.g. 2026-08-10:2026-10-16");
+                }
+                continue;
+            }
+            try {
+                List<Path> matched = SectionLoader.resolve(arg);
+                if (matched.isEmpty()) System.err.println("No CSV files match " + arg);
+                sections.addAll(matched);
+            } catch (IOException e) {
+                System.err.println("Unable to read " + arg + ": " + e.getMessage());
+            }
+        }
+        Path archiveFile = archive;
+        Path attendanceDirectory = attendance;
+        RecordsMetrics.dumpOnExitIfRequested();
+        RecordsMetrics.installEdtMonitor();
+        SwingUtilities.invokeLater(() -> {
+            JAVA frame = new JAVA(sections);
+            frame.setVisible(true);
+            if (archiveFile != null) frame.openArchive(archiveFile);
+            if (attendanceDirectory != null) frame.followAttendance(attendanceDirectory, term[0], term[1]);
+        });
     }
 }
@@ -0,0 +1,125 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.util.Arrays;
+
+// Hash map from non-negative long keys to non-negative int values without boxing.
+// Open addressing with linear probing; removals shift the following entries back
+// so lookups never have to step over tombstones.
+public class LongIntHashMap {
+    private long[] keys;
+    private int[] values; // -1 marks an empty bucket
+    private int size;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+    }
+
+    // Value stored for key, or -1
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = index(key, mask); values[i] >= 0; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return -1;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) >= 0;
+    }
+
+    // Stores the value and returns the previous one, or -1
+    public int put(long key, int value) {
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        for (; values[i] >= 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) resize(keys.length * 2);
+        return -1;
+    }
+
+    // Stores the value only if the key is absent; returns the existing value, or -1
+    public int putIfAbsent(long key, int value) {
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        for (; values[i] >= 0; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) resize(keys.length * 2);
+        return -1;
+    }
+
+    // Removes the key and returns its value, or -1
+    public int remove(long key) {
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        while (values[i] >= 0 && keys[i] != key) i = (i + 1) & mask;
+        if (values[i] < 0) return -1;
+        int removed = values[i];
+        // Move back any entry that probed past the freed bucket
+        int hole = i;
+        for (int j = (i + 1) & mask; values[j] >= 0; j = (j + 1) & mask) {
+            int home = index(keys[j], mask);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        values[hole] = -1;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Makes room for this many entries without further resizing
+    public void ensureCapacity(int entries) {
+        if (entries * 2L > keys.length) {
+            resize(Integer.highestOneBit(Math.max(16, entries * 2 - 1)) << 1);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(values, -1);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] < 0) continue;
+            int i = index(oldKeys[j], mask);
+            while (values[i] >= 0) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    private static int index(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,207 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import javax.swing.table.AbstractTableModel;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Read-only table over a RecordArchive file. Rows are read a page at a time as the
+// table asks for them and only the most recently used pages stay in memory, so heap
+// use is the same for a thousand rows or a hundred million. While the user scrolls,
+// the next pages in the scrolling direction are read ahead on a background thread.
+public class PagedTableModel extends AbstractTableModel implements Closeable {
+    static final int PAGE_ROWS = 1024;
+    private static final int CACHED_PAGES = 64;  // about 8 MB of decoded rows
+    private static final int PREFETCH_PAGES = 2;
+
+    private final FileChannel channel;
+    private final int rowCount;
+    private final Map<Integer, Page> cache = new LinkedHashMap<>(CACHED_PAGES * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> prefetching = new HashSet<>(); // guarded by cache
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "archive-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+    private int lastPage = -1;
+    private long pageReads; // pages read from disk, prefetches included
+
+    // One page of rows, decoded so painting never touches the file
+    private static final class Page {
+        final long[] ids;
+        final byte[] idWidths;
+        final byte[] scores; // row * SCORE_COUNT + score index
+        final String[] firstNames;
+        final String[] lastNames;
+
+        Page(int rows) {
+            ids = new long[rows];
+            idWidths = new byte[rows];
+            scores = new byte[rows * RecordsTableModel.SCORE_COUNT];
+            firstNames = new String[rows];
+            lastNames = new String[rows];
+        }
+    }
+
+    public PagedTableModel(Path archive) throws IOException {
+        channel = FileChannel.open(archive, StandardOpenOption.READ);
+        int rows = RecordArchive.rowCount(channel);
+        if (rows < 0) {
+            channel.close();
+            throw new IOException(archive.getFileName() + " is not a records archive");
+        }
+        rowCount = rows;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return RecordsTableModel.COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return RecordsTableModel.COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column < RecordsTableModel.FIRST_SCORE_COLUMN ? String.class : Integer.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Page page = page(row / PAGE_ROWS);
+        int i = row % PAGE_ROWS;
+        switch (column) {
+            case RecordsTableModel.ID_COLUMN:
+                return RecordsTableModel.formatId(page.ids[i], page.idWidths[i]);
+            case RecordsTableModel.FIRST_NAME_COLUMN:
+                return page.firstNames[i];
+            case RecordsTableModel.LAST_NAME_COLUMN:
+                return page.lastNames[i];
+            default:
+                return Integer.valueOf(page.scores[i * RecordsTableModel.SCORE_COUNT
+                        + column - RecordsTableModel.FIRST_SCORE_COLUMN]);
+        }
+    }
+
+    int cachedPages() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    long pageReads() {
+        synchronized (cache) {
+            return pageReads;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        prefetcher.shutdownNow();
+        channel.close();
+    }
+
+    private Page page(int index) {
+        Page page;
+        synchronized (cache) {
+            page = cache.get(index);
+        }
+        if (page == null) {
+            // A miss is one positional read; the Event Dispatch Thread only waits for it
+            // when scrolling outran the prefetcher or jumped
+            page = read(index);
+            synchronized (cache) {
+                cache.put(index, page);
+            }
+        }
+        if (index != lastPage) {
+            int direction = lastPage < 0 || index > lastPage ? 1 : -1;
+            lastPage = index;
+            for (int ahead = 1; ahead <= PREFETCH_PAGES; ahead++) {
+                prefetch(index + direction * ahead);
+            }
+        }
+        return page;
+    }
+
+    private void prefetch(int index) {
+        if (index < 0 || (long) index * PAGE_ROWS >= rowCount) return;
+        synchronized (cache) {
+            if (cache.containsKey(index) || !prefetching.add(index)) return;
+        }
+        prefetcher.execute(() -> {
+            try {
+                Page page = read(index);
+                synchronized (cache) {
+                    cache.put(index, page);
+                }
+            } catch (UncheckedIOException ignored) {
+                // Read again, and reported, if the page is actually shown
+            } finally {
+                synchronized (cache) {
+                    prefetching.remove(index);
+                }
+            }
+        });
+    }
+
+    private Page read(int index) {
+        int first = index * PAGE_ROWS;
+        int rows = Math.min(PAGE_ROWS, rowCount - first);
+        ByteBuffer bytes = ByteBuffer.allocate(rows * RecordArchive.ROW_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long position = RecordArchive.HEADER_SIZE + (long) first * RecordArchive.ROW_SIZE;
+        try {
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, position + bytes.position()) < 0) {
+                    throw new IOException("Archive ends inside page " + index);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        bytes.flip();
+        Page page = new Page(rows);
+        byte[] name = new byte[RecordArchive.NAME_BYTES];
+        for (int i = 0; i < rows; i++) {
+            page.ids[i] = bytes.getLong();
+            page.idWidths[i] = bytes.get();
+            bytes.get(page.scores, i * RecordsTableModel.SCORE_COUNT, RecordsTableModel.SCORE_COUNT);
+            page.firstNames[i] = name(bytes, name);
+            page.lastNames[i] = name(bytes, name);
+        }
+        synchronized (cache) {
+            pageReads++;
+        }
+        return page;
+    }
+
+    private static String name(ByteBuffer bytes, byte[] scratch) {
+        int length = bytes.get() & 0xFF;
+        bytes.get(scratch);
+        return new String(scratch, 0, Math.min(length, scratch.length), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,140 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntPredicate;
+
+// Fixed-width row file for record archives too large to keep in memory, written next
+// to the CSV as <csv>.rows. Row n starts at HEADER_SIZE + n * ROW_SIZE, so any page of
+// rows is one positional read.
+//
+// Layout (little-endian):
+//   header  magic, version, CSV size, CSV modified time, row count
+//   rows    id (long), ID width (byte), 5 scores (byte),
+//           first name and last name (length byte + NAME_BYTES bytes of UTF-8 each)
+// Names longer than NAME_BYTES are cut at a character boundary.
+public class RecordArchive {
+    static final int HEADER_SIZE = 32;
+    static final int NAME_BYTES = 32;
+    static final int ROW_SIZE = 8 + 1 + RecordsTableModel.SCORE_COUNT + 2 * (1 + NAME_BYTES); // 80
+
+    private static final int MAGIC = 0x43524152; // "RARC"
+    private static final int VERSION = 1;
+    private static final int WINDOW_SIZE = 8 << 20; // CSV bytes parsed per name pool
+
+    private RecordArchive() {
+    }
+
+    static Path pathFor(Path csv) {
+        return csv.toAbsolutePath().resolveSibling(csv.getFileName() + ".rows");
+    }
+
+    // Row count of an archive file, or -1 if it is not one
+    static int rowCount(FileChannel channel) throws IOException {
+        ByteBuffer header = readHeader(channel);
+        if (header == null) return -1;
+        header.position(24);
+        int rows = header.getInt();
+        if (rows < 0 || channel.size() != HEADER_SIZE + (long) rows * ROW_SIZE) return -1;
+        return rows;
+    }
+
+    // True if the archive was converted from the CSV as it is now
+    static boolean isCurrent(Path archive, Path csv) throws IOException {
+        if (!Files.isRegularFile(archive)) return false;
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            ByteBuffer header = readHeader(channel);
+            return header != null && rowCount(channel) >= 0
+                    && header.getLong(8) == Files.size(csv)
+                    && header.getLong(16) == Files.getLastModifiedTime(csv).toMillis();
+        }
+    }
+
+    // Streams the CSV into an archive; heap use does not depend on the CSV size because
+    // every window of the file gets a fresh name pool. progress is told the percentage
+    // done and returns false to stop. Returns the number of rows.
+    static int convert(Path csv, Path archive, IntPredicate progress) throws IOException {
+        long csvSize = Files.size(csv);
+        long csvModified = Files.getLastModifiedTime(csv).toMillis();
+        Path temp = archive.resolveSibling(archive.getFileName() + ".tmp");
+        int rows = 0;
+        try (FileChannel in = FileChannel.open(csv, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(ROW_SIZE * 4096).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.position(HEADER_SIZE); // header goes in last, once the row count is known
+            long base = 0;
+            while (base < csvSize) {
+                long length = Math.min(WINDOW_SIZE, csvSize - base);
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, base, length);
+                StringPool names = new StringPool();
+                ByteBuffer target = buffer;
+                int consumed = new CsvRecordParser(names).parse(window, base + length == csvSize, row -> {
+                    try {
+                        if (target.remaining() < ROW_SIZE) flush(out, target);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    target.putLong(row.id).put((byte) row.idWidth);
+                    for (int score : row.scores) target.put((byte) score);
+                    putName(target, names.bytes(row.firstName));
+                    putName(target, names.bytes(row.lastName));
+                    return true;
+                });
+                if (consumed == 0 && base + length < csvSize) {
+                    throw new IOException("Record at byte " + base + " is larger than " + WINDOW_SIZE + " bytes");
+                }
+                base += consumed;
+                if (!progress.test((int) (base * 100 / Math.max(1, csvSize)))) {
+                    throw new IOException("Conversion cancelled");
+                }
+            }
+            flush(out, buffer);
+            long rowBytes = out.size() - HEADER_SIZE;
+            if (rowBytes / ROW_SIZE > Integer.MAX_VALUE) throw new IOException(csv + " has too many rows");
+            rows = (int) (rowBytes / ROW_SIZE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(csvSize).putLong(csvModified).putInt(rows).putInt(0).flip();
+            while (header.hasRemaining()) out.write(header, header.position());
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            if (e instanceof UncheckedIOException) throw ((UncheckedIOException) e).getCause();
+            throw e;
+        }
+        Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    private static void putName(ByteBuffer out, byte[] name) {
+        int length = Math.min(name.length, NAME_BYTES);
+        // Never end inside a multi-byte character
+        while (length < name.length && length > 0 && (name[length] & 0xC0) == 0x80) length--;
+        out.put((byte) length).put(name, 0, length);
+        for (int i = length; i < NAME_BYTES; i++) out.put((byte) 0);
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+        }
+        if (header.hasRemaining()) return null;
+        header.flip();
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) return null;
+        return header;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+}
@@ -0,0 +1,127 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+// A block of records laid out the same way as RecordsTableModel stores them, so it
+// can be appended to the model or written to disk with bulk array copies.
+// Name codes refer to the StringPool the columns were built against.
+public class RecordColumns {
+    long[] ids;
+    byte[] idWidths;
+    int[] firstNames;
+    int[] lastNames;
+    final byte[][] scores = new byte[RecordsTableModel.SCORE_COUNT][];
+    int size;
+    LongIntHashMap idIndex; // StudentID -> position, set by dropDuplicateIds()
+    int invalidRows; // rows the parser rejected while filling these columns
+
+    public RecordColumns(int capacity) {
+        capacity = Math.max(1, capacity);
+        ids = new long[capacity];
+        idWidths = new byte[capacity];
+        firstNames = new int[capacity];
+        lastNames = new int[capacity];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = new byte[capacity];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    void add(CsvRecordParser.Row row) {
+        if (size == ids.length) grow(size * 2);
+        ids[size] = row.id;
+        idWidths[size] = (byte) row.idWidth;
+        firstNames[size] = row.firstName;
+        lastNames[size] = row.lastName;
+        for (int i = 0; i < scores.length; i++) {
+            scores[i][size] = (byte) row.scores[i];
+        }
+        size++;
+    }
+
+    // Copy of the records in [from, to)
+    RecordColumns copyOf(int from, int to) {
+        RecordColumns copy = new RecordColumns(to - from);
+        int count = to - from;
+        System.arraycopy(ids, from, copy.ids, 0, count);
+        System.arraycopy(idWidths, from, copy.idWidths, 0, count);
+        System.arraycopy(firstNames, from, copy.firstNames, 0, count);
+        System.arraycopy(lastNames, from, copy.lastNames, 0, count);
+        for (int i = 0; i < scores.length; i++) {
+            System.arraycopy(scores[i], from, copy.scores[i], 0, count);
+        }
+        copy.size = count;
+        return copy;
+    }
+
+    // Keeps only the records the predicate accepts, preserving order
+    void retain(IntPredicate keep) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!keep.test(i)) continue;
+            ids[kept] = ids[i];
+            idWidths[kept] = idWidths[i];
+            firstNames[kept] = firstNames[i];
+            lastNames[kept] = lastNames[i];
+            for (byte[] column : scores) {
+                column[kept] = column[i];
+            }
+            kept++;
+        }
+        size = kept;
+    }
+
+    // Re-codes the names from the pool they were parsed into to another pool,
+    // interning each distinct name once
+    void internNames(StringPool from, StringPool to) {
+        int[] codes = new int[from.size()];
+        Arrays.fill(codes, -1);
+        for (int i = 0; i < size; i++) {
+            firstNames[i] = recode(firstNames[i], codes, from, to);
+            lastNames[i] = recode(lastNames[i], codes, from, to);
+        }
+    }
+
+    private static int recode(int code, int[] codes, StringPool from, StringPool to) {
+        if (codes[code] < 0) {
+            byte[] name = from.bytes(code);
+            codes[code] = to.intern(name, 0, name.length);
+        }
+        return codes[code];
+    }
+
+    // Drops records that repeat an earlier StudentID and keeps the id -> position map,
+    // so a background thread can do the hashing before the columns reach the model.
+    // Returns the number of records dropped.
+    int dropDuplicateIds() {
+        LongIntHashMap index = new LongIntHashMap(size);
+        BitSet duplicates = new BitSet();
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (index.putIfAbsent(ids[i], kept) < 0) {
+                kept++;
+            } else {
+                duplicates.set(i);
+            }
+        }
+        int dropped = size - kept;
+        if (dropped > 0) retain(i -> !duplicates.get(i));
+        idIndex = index;
+        return dropped;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        idWidths = Arrays.copyOf(idWidths, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = Arrays.copyOf(scores[i], capacity);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+// Append-only journal of the adds and deletes made in the records viewer, so saving
+// costs one small record per edit instead of rewriting the CSV.
+//
+// Files sit next to the CSV as <csv>.journal.<sequence>. Each segment starts with a
+// header naming the CSV (size + modified time) it applies on top of; entries are
+// length-prefixed and CRC-checked, so a torn tail after a crash is cut off on open.
+// A background thread writes queued entries and fsyncs once per batch (group commit).
+// Compaction writes the current records to the CSV's snapshot (RecordSnapshot) and
+// drops the segments folded into it; the CSV itself is never rewritten, since other
+// tools may be appending to it.
+public class RecordJournal {
+    static final long COMPACT_THRESHOLD = 4L << 20;
+
+    private static final int MAGIC = 0x524A4E4C; // "RJNL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final long PENDING_BASE = -1; // base CSV not written yet (compaction running)
+    private static final byte ADD = 1;
+    private static final byte DELETE = 2;
+
+    // One journaled add
+    static final class Entry {
+        final long id;
+        final int idWidth;
+        final String firstName;
+        final String lastName;
+        final int[] scores;
+
+        Entry(long id, int idWidth, String firstName, String lastName, int[] scores) {
+            this.id = id;
+            this.idWidth = idWidth;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.scores = scores;
+        }
+    }
+
+    // Queued work for the writer thread
+    private static final class Pending {
+        final ByteBuffer data;
+        final CompletableFuture<Void> done;
+        final boolean rotate;
+
+        Pending(ByteBuffer data, CompletableFuture<Void> done, boolean rotate) {
+            this.data = data;
+            this.done = done;
+            this.rotate = rotate;
+        }
+    }
+
+    private final Path csv;
+    private final Set<Long> deletedIds = new HashSet<>();
+    private final Map<Long, Entry> addedRecords = new LinkedHashMap<>();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private FileChannel segment; // owned by the writer thread after open
+    private long sequence;
+    private final AtomicLong journalBytes = new AtomicLong();
+    private volatile boolean compacting;
+    private volatile CompletableFuture<Void> compaction = CompletableFuture.completedFuture(null);
+    private volatile IOException failure;
+
+    private RecordJournal(Path csv) {
+        this.csv = csv;
+        this.writer = new Thread(this::writeLoop, "records-journal");
+        this.writer.setDaemon(true);
+    }
+
+    // Reads the existing segments for the CSV and opens the journal for appending
+    static RecordJournal open(Path csv) throws IOException {
+        RecordJournal journal = new RecordJournal(csv);
+        journal.recover();
+        journal.writer.start();
+        return journal;
+    }
+
+    // StudentIDs deleted since the CSV was written; the loader skips these rows
+    Set<Long> deletedIds() {
+        return deletedIds;
+    }
+
+    // Records added since the CSV was written (and not deleted again), oldest first
+    List<Entry> addedRecords() {
+        return new ArrayList<>(addedRecords.values());
+    }
+
+    void logAdd(RecordsTableModel model, int slot) {
+        StringPool names = model.names();
+        byte[] first = names.get(model.firstNameAt(slot)).getBytes(StandardCharsets.UTF_8);
+        byte[] last = names.get(model.lastNameAt(slot)).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(4 + 1 + 9 + 2 + first.length + 2 + last.length
+                + RecordsTableModel.SCORE_COUNT + 4);
+        entry.position(4);
+        entry.put(ADD).putLong(model.idAt(slot)).put((byte) model.idWidthAt(slot));
+        entry.putShort((short) first.length).put(first);
+        entry.putShort((short) last.length).put(last);
+        for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+            entry.put((byte) model.scoreAt(slot, i));
+        }
+        enqueue(entry);
+    }
+
+    void logDelete(RecordsTableModel model, int slot) {
+        ByteBuffer entry = ByteBuffer.allocate(4 + 1 + 9 + 4);
+        entry.position(4);
+        entry.put(DELETE).putLong(model.idAt(slot)).put((byte) model.idWidthAt(slot));
+        enqueue(entry);
+    }
+
+    boolean needsCompaction() {
+        return !compacting && journalBytes.get() > COMPACT_THRESHOLD;
+    }
+
+    IOException failure() {
+        return failure;
+    }
+
+    // Writes rows copied off the model on the EDT (names from the model's pool, which
+    // only grows) to the snapshot on a background thread. The rows are the first
+    // csvSize bytes of the CSV, as modified at csvModified, plus every edit journaled
+    // so far. Edits made meanwhile go to a fresh segment, which a crash at any point
+    // leaves either folded in or replayed on top of the previous snapshot.
+    CompletableFuture<Void> compact(RecordColumns rows, StringPool names, long csvSize, long csvModified) {
+        compacting = true;
+        long compactedBytes = journalBytes.get(); // entries queued so far, all before the rotation
+        CompletableFuture<Void> rotated = new CompletableFuture<>();
+        queue.add(new Pending(null, rotated, true));
+        compaction = rotated.thenRunAsync(() -> {
+            try {
+                long newSequence = sequence;
+                RecordSnapshot.write(RecordSnapshot.pathFor(csv), csvSize, csvModified, newSequence, rows, names);
+                // The new segment now applies on top of the snapshot just written
+                try (FileChannel header = FileChannel.open(segmentPath(newSequence), StandardOpenOption.WRITE)) {
+                    ByteBuffer base = ByteBuffer.allocate(16);
+                    base.putLong(csvSize).putLong(csvModified).flip();
+                    header.write(base, 16);
+                    header.force(true);
+                }
+                for (Map.Entry<Long, Path> old : segments().headMap(newSequence).entrySet()) {
+                    Files.deleteIfExists(old.getValue());
+                }
+                journalBytes.addAndGet(-compactedBytes);
+            } catch (IOException e) {
+                failure = e;
+                throw new UncheckedIOException(e);
+            } finally {
+                compacting = false;
+            }
+        });
+        return compaction;
+    }
+
+    // Waits for queued entries to reach the disk and for a running compaction to
+    // finish, so the snapshot is never replaced after the caller moves on, then stops
+    // the writer thread
+    void close() {
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        queue.add(new Pending(null, flushed, false));
+        flushed.join();
+        compaction.handle((ignored, error) -> null).join(); // a failure was already reported
+    }
+
+    private void enqueue(ByteBuffer entry) {
+        CRC32 crc = new CRC32();
+        crc.update(entry.array(), 4, entry.capacity() - 8);
+        entry.putInt(0, entry.capacity() - 8);
+        entry.putInt(entry.capacity() - 4, (int) crc.getValue());
+        entry.position(0);
+        journalBytes.addAndGet(entry.capacity());
+        queue.add(new Pending(entry, null, false));
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+            try {
+                for (Pending pending : batch) {
+                    if (pending.data != null) {
+                        while (pending.data.hasRemaining()) segment.write(pending.data);
+                    } else if (pending.rotate) {
+                        segment.force(false);
+                        segment.close();
+                        segment = createSegment(sequence + 1, PENDING_BASE, PENDING_BASE);
+                    }
+                }
+                // One fsync covers every entry in the batch
+                segment.force(false);
+            } catch (IOException e) {
+                failure = e;
+            }
+            for (Pending pending : batch) {
+                if (pending.done == null) continue;
+                if (!pending.rotate) {
+                    closeQuietly();
+                    pending.done.complete(null);
+                    return;
+                }
+                if (failure != null) pending.done.completeExceptionally(failure);
+                else pending.done.complete(null);
+            }
+            batch.clear();
+        }
+    }
+
+    private void recover() throws IOException {
+        long baseSize = Files.size(csv);
+        long baseModified = Files.getLastModifiedTime(csv).toMillis();
+        TreeMap<Long, Path> segments = segments();
+        // Segments a compacted snapshot of this CSV already holds are not replayed
+        long[] snapshot;
+        try {
+            snapshot = RecordSnapshot.header(RecordSnapshot.pathFor(csv));
+        } catch (IOException e) {
+            snapshot = null; // the loader will not use it either
+        }
+        long folded = snapshot != null && appliesTo(snapshot[0], snapshot[1], baseSize, baseModified)
+                ? snapshot[2] : 0;
+
+        // Replay from the newest segment written on top of this exact CSV. If none
+        // matches, a compaction may have been cut short by a crash: its follow-up
+        // segment is still marked pending. Failing both, the CSV may only have grown
+        // since (rows appended by another tool while it was watched), so the newest
+        // segment written on a smaller CSV still applies.
+        Long start = null;
+        Long firstPending = null;
+        Long grownFrom = null;
+        for (Map.Entry<Long, Path> entry : segments.tailMap(folded).entrySet()) {
+            long[] header = readHeader(entry.getValue());
+            if (header == null) continue;
+            if (header[0] == baseSize && header[1] == baseModified) start = entry.getKey();
+            if (header[0] == PENDING_BASE && firstPending == null) firstPending = entry.getKey();
+            if (header[0] != PENDING_BASE && header[0] < baseSize && header[1] <= baseModified) {
+                grownFrom = entry.getKey();
+            }
+        }
+        if (start == null) start = firstPending;
+        if (start == null) start = grownFrom;
+
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            if (start == null || entry.getKey() < start) {
+                // Written against a different CSV; kept aside rather than replayed
+                Files.move(entry.getValue(), entry.getValue().resolveSibling(entry.getValue().getFileName() + ".stale"),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        Map.Entry<Long, Path> last = null;
+        long validLength = HEADER_SIZE;
+        if (start != null) {
+            for (Map.Entry<Long, Path> entry : segments.tailMap(start).entrySet()) {
+                validLength = replay(entry.getValue());
+                last = entry;
+            }
+        }
+        if (last == null) {
+            segment = createSegment(segments.isEmpty() ? 1 : segments.lastKey() + 1, baseSize, baseModified);
+        } else {
+            sequence = last.getKey();
+            segment = FileChannel.open(last.getValue(), StandardOpenOption.WRITE);
+            segment.truncate(validLength); // drop a torn tail left by a crash
+            segment.position(validLength);
+        }
+    }
+
+    // Whether records taken from the first size bytes of a CSV modified at modified
+    // still describe the CSV now: the same file, or one that has only grown since
+    static boolean appliesTo(long size, long modified, long csvSize, long csvModified) {
+        return size == csvSize && modified == csvModified || size < csvSize && modified <= csvModified;
+    }
+
+    // Applies one segment's entries to the recovered state; returns the valid length
+    private long replay(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        in.position(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        while (in.remaining() >= 8) {
+            int start = in.position();
+            int length = in.getInt();
+            if (length <= 0 || length + 4 > in.remaining()) break;
+            crc.reset();
+            crc.update(bytes, start + 4, length);
+            if ((int) crc.getValue() != in.getInt(start + 4 + length)) break;
+            byte type = in.get();
+            long id = in.getLong();
+            int width = in.get();
+            if (type == ADD) {
+                String first = readString(in);
+                String last = readString(in);
+                int[] scores = new int[RecordsTableModel.SCORE_COUNT];
+                for (int i = 0; i < scores.length; i++) scores[i] = in.get();
+                addedRecords.put(id, new Entry(id, width, first, last, scores));
+            } else if (type == DELETE) {
+                // Deleting a record added by the journal only cancels that add
+                if (addedRecords.remove(id) == null) deletedIds.add(id);
+            }
+            in.position(start + 4 + length + 4);
+            journalBytes.addAndGet(length + 8);
+        }
+        return in.position();
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // {baseSize, baseModified}, or null if the file is not a journal segment
+    private static long[] readHeader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+            if (header.position() < HEADER_SIZE) return null;
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) return null;
+            header.getLong(); // sequence
+            return new long[]{header.getLong(), header.getLong()};
+        }
+    }
+
+    private FileChannel createSegment(long newSequence, long baseSize, long baseModified) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(newSequence), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(newSequence).putLong(baseSize).putLong(baseModified).flip();
+        channel.write(header);
+        channel.force(true);
+        sequence = newSequence;
+        return channel;
+    }
+
+    private TreeMap<Long, Path> segments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        String prefix = csv.getFileName() + ".journal.";
+        Path directory = csv.toAbsolutePath().getParent();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (suffix.chars().allMatch(Character::isDigit) && !suffix.isEmpty()) {
+                    segments.put(Long.parseLong(suffix), file);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private Path segmentPath(long segmentSequence) {
+        return csv.toAbsolutePath().resolveSibling(csv.getFileName() + ".journal." + segmentSequence);
+    }
+
+    private void closeQuietly() {
+        try {
+            segment.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
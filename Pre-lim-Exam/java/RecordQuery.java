@@ -0,0 +1,161 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Field-scoped score filter typed into the search box, e.g.
+//   PRELIM EXAM < 50
+//   ATTENDANCE GRADE between 70 and 80 and LAB WORK 1 >= 75
+// Every condition is turned into an inclusive range over one score column.
+public class RecordQuery {
+    // Short names accepted next to the column headers
+    private static final String[][] ALIASES = {
+            {"lab1", "lab 1", "lab work 1"},
+            {"lab2", "lab 2", "lab work 2"},
+            {"lab3", "lab 3", "lab work 3"},
+            {"exam", "prelim", "prelim exam"},
+            {"attendance", "attendance grade"}
+    };
+
+    static final class Condition {
+        final int scoreIndex; // 0 = LAB WORK 1 ... 4 = ATTENDANCE GRADE
+        final int min;
+        final int max;
+
+        Condition(int scoreIndex, int min, int max) {
+            this.scoreIndex = scoreIndex;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private final List<Condition> conditions;
+
+    private RecordQuery(List<Condition> conditions) {
+        this.conditions = conditions;
+    }
+
+    List<Condition> conditions() {
+        return conditions;
+    }
+
+    // Returns null unless the text starts with a score column followed by an operator
+    // or "between", so names like "Prelim Santos" are still a plain search. Throws
+    // IllegalArgumentException for a malformed query.
+    static RecordQuery parse(String text) {
+        Tokenizer in = new Tokenizer(text);
+        if (in.field() < 0 || !in.comparisonFollows()) return null;
+        in.pos = 0;
+        List<Condition> conditions = new ArrayList<>();
+        do {
+            int field = in.field();
+            if (field < 0) throw new IllegalArgumentException("Expected a score column at \"" + in.rest() + "\"");
+            String column = RecordsTableModel.COLUMN_NAMES[RecordsTableModel.FIRST_SCORE_COLUMN + field];
+            int min;
+            int max;
+            if (in.word("between")) {
+                min = in.number(column);
+                if (!in.word("and")) throw new IllegalArgumentException("Expected \"and\" after between " + min);
+                max = in.number(column);
+            } else {
+                String op = in.operator();
+                int value = in.number(column);
+                switch (op) {
+                    case "<": min = 0; max = value - 1; break;
+                    case "<=": min = 0; max = value; break;
+                    case ">": min = value + 1; max = 100; break;
+                    case ">=": min = value; max = 100; break;
+                    default: min = value; max = value; break;
+                }
+            }
+            conditions.add(new Condition(field, Math.max(0, min), Math.min(100, max)));
+        } while (in.word("and"));
+        if (!in.atEnd()) throw new IllegalArgumentException("Unexpected \"" + in.rest() + "\"");
+        return new RecordQuery(conditions);
+    }
+
+    private static final class Tokenizer {
+        private final String text;
+        private int pos;
+
+        Tokenizer(String text) {
+            this.text = text.toLowerCase(Locale.ROOT);
+        }
+
+        // Longest column name or alias at the cursor, or -1
+        int field() {
+            skipBlanks();
+            int best = -1;
+            int bestLength = 0;
+            for (int i = 0; i < ALIASES.length; i++) {
+                for (String alias : ALIASES[i]) {
+                    if (alias.length() > bestLength && text.startsWith(alias, pos) && boundary(pos + alias.length())) {
+                        best = i;
+                        bestLength = alias.length();
+                    }
+                }
+            }
+            pos += bestLength;
+            return best;
+        }
+
+        boolean word(String word) {
+            skipBlanks();
+            if (text.startsWith(word, pos) && boundary(pos + word.length())) {
+                pos += word.length();
+                return true;
+            }
+            return false;
+        }
+
+        // Whether "between" or a comparison operator is next, without consuming it
+        boolean comparisonFollows() {
+            int start = pos;
+            boolean between = word("between");
+            pos = start;
+            skipBlanks();
+            boolean operator = pos < text.length() && "<>=".indexOf(text.charAt(pos)) >= 0;
+            pos = start;
+            return between || operator;
+        }
+
+        String operator() {
+            skipBlanks();
+            for (String op : new String[]{"<=", ">=", "==", "<", ">", "="}) {
+                if (text.startsWith(op, pos)) {
+                    pos += op.length();
+                    return op.equals("==") ? "=" : op;
+                }
+            }
+            throw new IllegalArgumentException("Expected <, <=, >, >=, = or between at \"" + rest() + "\"");
+        }
+
+        int number(String column) {
+            skipBlanks();
+            int start = pos;
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) pos++;
+            if (start == pos || pos - start > 3) {
+                throw new IllegalArgumentException(column + " needs a number from 0 to 100");
+            }
+            return Integer.parseInt(text.substring(start, pos));
+        }
+
+        boolean atEnd() {
+            skipBlanks();
+            return pos == text.length();
+        }
+
+        String rest() {
+            return text.substring(pos).trim();
+        }
+
+        private boolean boundary(int index) {
+            return index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+        }
+
+        private void skipBlanks() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Binary copy of a records CSV, written next to it as <csv>.snap so later starts can
+// map the columns straight into memory instead of parsing text. Journal compaction
+// writes the same file with the edits folded in (see RecordJournal.compact).
+//
+// Layout (little-endian):
+//   header   magic, version, CSV size, CSV modified time, row count, name count, name bytes,
+//            first journal segment not folded in (0 for a plain copy of the CSV)
+//   columns  ids (long), first names (int), last names (int), ID widths (byte), 5 score columns (byte)
+//   names    offsets (int, name count + 1) followed by the UTF-8 bytes of every name
+// The CSV size and modified time identify the CSV the snapshot was taken from; if
+// either changed the snapshot is ignored.
+public class RecordSnapshot {
+    private static final int MAGIC = 0x524E5350; // "RSNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+
+    private RecordSnapshot() {
+    }
+
+    static Path pathFor(Path csv) {
+        return csv.toAbsolutePath().resolveSibling(csv.getFileName() + ".snap");
+    }
+
+    // {CSV size, CSV modified time, first journal segment not folded in} of the
+    // snapshot, or null if there is none
+    static long[] header(Path snapshot) throws IOException {
+        if (!Files.isRegularFile(snapshot)) return null;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+            if (header.hasRemaining()) return null;
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) return null;
+            long csvSize = header.getLong();
+            long csvModified = header.getLong();
+            header.position(HEADER_SIZE - 4);
+            return new long[]{csvSize, csvModified, header.getInt()};
+        }
+    }
+
+    // Reads the snapshot if it was taken from a CSV with this size and modified time,
+    // interning its names into pool. Returns null when there is no usable snapshot.
+    static RecordColumns read(Path snapshot, long csvSize, long csvModified, StringPool pool) throws IOException {
+        if (!Files.isRegularFile(snapshot)) return null;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+            if (header.hasRemaining()) return null;
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) return null;
+            if (header.getLong() != csvSize || header.getLong() != csvModified) return null;
+            int rows = header.getInt();
+            int nameCount = header.getInt();
+            int nameBytes = header.getInt();
+            if (rows < 0 || nameCount < 0 || nameBytes < 0 || channel.size() != length(rows, nameCount, nameBytes)) {
+                return null;
+            }
+
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            RecordColumns columns = new RecordColumns(rows);
+            int position = HEADER_SIZE;
+            map.position(position);
+            map.asLongBuffer().get(columns.ids, 0, rows);
+            position += rows * 8;
+            map.position(position);
+            map.asIntBuffer().get(columns.firstNames, 0, rows);
+            position += rows * 4;
+            map.position(position);
+            map.asIntBuffer().get(columns.lastNames, 0, rows);
+            position += rows * 4;
+            map.position(position);
+            map.get(columns.idWidths, 0, rows);
+            for (byte[] column : columns.scores) {
+                map.get(column, 0, rows);
+            }
+            int[] offsets = new int[nameCount + 1];
+            map.asIntBuffer().get(offsets);
+            map.position(map.position() + offsets.length * 4);
+            byte[] bytes = new byte[nameBytes];
+            map.get(bytes);
+            columns.size = rows;
+
+            // Snapshot name codes become codes in the pool; usually these are the same
+            int[] codes = new int[nameCount];
+            boolean identity = true;
+            for (int i = 0; i < nameCount; i++) {
+                if (offsets[i] > offsets[i + 1] || offsets[i + 1] > nameBytes) return null;
+                codes[i] = pool.intern(bytes, offsets[i], offsets[i + 1] - offsets[i]);
+                identity &= codes[i] == i;
+            }
+            for (int i = 0; i < rows; i++) {
+                int first = columns.firstNames[i];
+                int last = columns.lastNames[i];
+                if (first < 0 || first >= nameCount || last < 0 || last >= nameCount) return null;
+                if (!identity) {
+                    columns.firstNames[i] = codes[first];
+                    columns.lastNames[i] = codes[last];
+                }
+            }
+            return columns;
+        }
+    }
+
+    // Writes the records (name codes from pool) through a temporary file, so a crash
+    // never leaves a half-written snapshot behind
+    static void write(Path snapshot, long csvSize, long csvModified, RecordColumns columns, StringPool pool)
+            throws IOException {
+        write(snapshot, csvSize, csvModified, 0, columns, pool);
+    }
+
+    // Same, for records that already include the journal segments before journalSequence
+    static void write(Path snapshot, long csvSize, long csvModified, long journalSequence, RecordColumns columns,
+                      StringPool pool) throws IOException {
+        int nameCount = 0;
+        for (int i = 0; i < columns.size; i++) {
+            nameCount = Math.max(nameCount, Math.max(columns.firstNames[i], columns.lastNames[i]) + 1);
+        }
+        byte[][] names = new byte[nameCount][];
+        int nameBytes = 0;
+        for (int code = 0; code < nameCount; code++) {
+            names[code] = pool.bytes(code);
+            nameBytes += names[code].length;
+        }
+
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer out = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION).putLong(csvSize).putLong(csvModified)
+                    .putInt(columns.size).putInt(nameCount).putInt(nameBytes).putInt(Math.toIntExact(journalSequence));
+            int rows = columns.size;
+            for (int i = 0; i < rows; i++) {
+                out = room(channel, out, 8).putLong(columns.ids[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out = room(channel, out, 4).putInt(columns.firstNames[i]);
+            }
+            for (int i = 0; i < rows; i++) {
+                out = room(channel, out, 4).putInt(columns.lastNames[i]);
+            }
+            out = put(channel, out, columns.idWidths, rows);
+            for (byte[] column : columns.scores) {
+                out = put(channel, out, column, rows);
+            }
+            int offset = 0;
+            out = room(channel, out, 4).putInt(0);
+            for (byte[] name : names) {
+                offset += name.length;
+                out = room(channel, out, 4).putInt(offset);
+            }
+            for (byte[] name : names) {
+                out = put(channel, out, name, name.length);
+            }
+            flush(channel, out);
+            channel.force(true);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long length(int rows, int nameCount, int nameBytes) {
+        return HEADER_SIZE + (long) rows * (8 + 4 + 4 + 1 + RecordsTableModel.SCORE_COUNT)
+                + (nameCount + 1L) * 4 + nameBytes;
+    }
+
+    private static ByteBuffer put(FileChannel channel, ByteBuffer out, byte[] bytes, int length) throws IOException {
+        int done = 0;
+        while (done < length) {
+            if (!out.hasRemaining()) flush(channel, out);
+            int n = Math.min(length - done, out.remaining());
+            out.put(bytes, done, n);
+            done += n;
+        }
+        return out;
+    }
+
+    private static ByteBuffer room(FileChannel channel, ByteBuffer out, int bytes) throws IOException {
+        if (out.remaining() < bytes) flush(channel, out);
+        return out;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+}
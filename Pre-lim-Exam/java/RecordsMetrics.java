@@ -0,0 +1,218 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histograms and counters for the viewer's hot paths (load, search, sort,
+// edits, Event Dispatch Thread), plus matching Flight Recorder events so a session
+// can be profiled with -XX:StartFlightRecording instead of an attached profiler.
+// Start with -Drecords.metrics=stderr (or =FILE) to get a summary when the JVM exits.
+public class RecordsMetrics {
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private RecordsMetrics() {
+    }
+
+    static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    static void count(String name, long delta) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    // Log-linear latency histogram: four buckets per power of two of nanoseconds, so a
+    // percentile is off by at most a quarter of its value. Lock-free and fixed size.
+    static final class Histogram {
+        private static final int SUB_BUCKETS = 4;
+        private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private volatile long max;
+
+        void record(long nanos) {
+            long value = Math.max(1, nanos);
+            int log = 63 - Long.numberOfLeadingZeros(value);
+            int sub = log < 2 ? 0 : (int) (value >>> (log - 2)) & (SUB_BUCKETS - 1);
+            buckets.incrementAndGet(log * SUB_BUCKETS + sub);
+            count.increment();
+            total.add(value);
+            if (value > max) max = value; // a racing larger value may be lost, never a wrong one kept
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        double meanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) total.sum() / n;
+        }
+
+        long maxNanos() {
+            return max;
+        }
+
+        // Upper bound of the bucket holding the percentile
+        long percentileNanos(double percent) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percent / 100 * n));
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) return Math.min(max, upperBound(i));
+            }
+            return max;
+        }
+
+        private static long upperBound(int bucket) {
+            int log = bucket / SUB_BUCKETS;
+            int sub = bucket % SUB_BUCKETS;
+            if (log < 2) return (1L << log) + 1;
+            long step = 1L << (log - 2);
+            return (1L << log) + (sub + 1) * step;
+        }
+    }
+
+    // Times every event the Event Dispatch Thread handles; the busy time is the
+    // "edt.dispatch" histogram and long dispatches are EdtBusyEvents
+    static void installEdtMonitor() {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new EventQueue() {
+            private final Histogram dispatch = histogram("edt.dispatch");
+
+            @Override
+            protected void dispatchEvent(AWTEvent event) {
+                EdtBusyEvent busy = new EdtBusyEvent();
+                busy.begin();
+                long start = System.nanoTime();
+                try {
+                    super.dispatchEvent(event);
+                } finally {
+                    dispatch.record(System.nanoTime() - start);
+                    busy.end();
+                    if (busy.shouldCommit()) {
+                        busy.eventType = event.getClass().getSimpleName();
+                        busy.commit();
+                    }
+                }
+            }
+        });
+    }
+
+    // Honors -Drecords.metrics=stderr|FILE by printing the summary on exit
+    static void dumpOnExitIfRequested() {
+        String target = System.getProperty("records.metrics");
+        if (target == null || target.isEmpty()) return;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (target.equals("stderr")) {
+                printSummary(System.err);
+                return;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(target)), true, "UTF-8")) {
+                printSummary(out);
+            } catch (IOException e) {
+                System.err.println("Unable to write metrics to " + target + ": " + e.getMessage());
+            }
+        }, "records-metrics"));
+    }
+
+    static String summary() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-16s %8s %10s %10s %10s %10s %10s%n",
+                "latency (ms)", "count", "mean", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram h = entry.getValue();
+            text.append(String.format("%-16s %8d %10.3f %10.3f %10.3f %10.3f %10.3f%n", entry.getKey(), h.count(),
+                    h.meanNanos() / 1e6, h.percentileNanos(50) / 1e6, h.percentileNanos(90) / 1e6,
+                    h.percentileNanos(99) / 1e6, h.maxNanos() / 1e6));
+        }
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            text.append(String.format("%-16s %8d%n", entry.getKey(), entry.getValue().sum()));
+        }
+        return text.toString();
+    }
+
+    private static void printSummary(PrintStream out) {
+        out.print(summary());
+        out.flush();
+    }
+
+    @Name("records.CsvLoad")
+    @Label("CSV Load")
+    @Category("Records")
+    static final class LoadEvent extends Event {
+        @Label("File")
+        String file;
+        @Label("Rows")
+        int rows;
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+        @Label("From Snapshot")
+        boolean fromSnapshot;
+    }
+
+    @Name("records.Search")
+    @Label("Search")
+    @Category("Records")
+    static final class SearchEvent extends Event {
+        @Label("Query")
+        String query;
+        @Label("Score Query")
+        boolean scoreQuery;
+        @Label("Matches")
+        int matches;
+    }
+
+    @Name("records.Sort")
+    @Label("Sort or Filter")
+    @Category("Records")
+    @Description("Rebuild of the row sorter's view")
+    static final class SortEvent extends Event {
+        @Label("Sort Keys")
+        String keys;
+        @Label("Filtered")
+        boolean filtered;
+        @Label("View Rows")
+        int rows;
+    }
+
+    @Name("records.Edit")
+    @Label("Edit")
+    @Category("Records")
+    static final class EditEvent extends Event {
+        @Label("Kind")
+        String kind;
+        @Label("Rows")
+        int rows;
+    }
+
+    @Name("records.EdtBusy")
+    @Label("Event Dispatch Thread Busy")
+    @Category("Records")
+    @Threshold("20 ms")
+    static final class EdtBusyEvent extends Event {
+        @Label("Event Type")
+        String eventType;
+    }
+}
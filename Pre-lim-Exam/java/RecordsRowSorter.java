@@ -0,0 +1,465 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import javax.swing.RowFilter;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// RowSorter for RecordsTableModel that never calls a Comparator per cell.
+// Each column keeps a sorted order of storage slots: scores (0-100) and names (by
+// collation rank) are counting-sorted, StudentIDs are radix-sorted numerically.
+// The order survives deletes (dead slots are skipped) and appended rows are sorted
+// on their own and merged in. From it every slot gets a dense rank, and the view
+// is built with one stable counting sort per sort key, so re-sorting is linear.
+public class RecordsRowSorter extends RowSorter<RecordsTableModel> {
+    private static final int MAX_SORT_KEYS = 3;
+
+    private final RecordsTableModel model;
+
+    private List<SortKey> sortKeys = Collections.emptyList();
+    private RowFilter<? super RecordsTableModel, ? super Integer> filter;
+    private int[] viewToModel; // null = identity
+    private int[] modelToView; // built on demand
+
+    private final int[][] sortedSlots = new int[RecordsTableModel.COLUMN_NAMES.length][];
+    private final int[] sortedCoverage = new int[RecordsTableModel.COLUMN_NAMES.length];
+    private final int[][] slotRanks = new int[RecordsTableModel.COLUMN_NAMES.length][];
+    private final int[] rankCounts = new int[RecordsTableModel.COLUMN_NAMES.length];
+    private int[] nameRanks = new int[0];
+    private int generation; // model generation the caches belong to
+    private final int[] scoreVersions = new int[RecordsTableModel.SCORE_COUNT]; // model score versions likewise
+
+    private final FilterEntry entry = new FilterEntry();
+
+    public RecordsRowSorter(RecordsTableModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public RecordsTableModel getModel() {
+        return model;
+    }
+
+    // Same behaviour as TableRowSorter: the clicked column becomes the primary key,
+    // or flips direction if it already is, and older keys break ties
+    @Override
+    public void toggleSortOrder(int column) {
+        checkColumn(column);
+        List<SortKey> keys = new ArrayList<>(sortKeys);
+        SortOrder order = SortOrder.ASCENDING;
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i).getColumn() == column) {
+                if (i == 0 && keys.get(i).getSortOrder() == SortOrder.ASCENDING) order = SortOrder.DESCENDING;
+                keys.remove(i);
+                break;
+            }
+        }
+        keys.add(0, new SortKey(column, order));
+        setSortKeys(keys.size() > MAX_SORT_KEYS ? keys.subList(0, MAX_SORT_KEYS) : keys);
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> accepted = new ArrayList<>();
+        if (keys != null) {
+            for (SortKey key : keys) {
+                checkColumn(key.getColumn());
+                if (key.getSortOrder() != SortOrder.UNSORTED) accepted.add(key);
+            }
+        }
+        if (accepted.equals(sortKeys)) return;
+        sortKeys = Collections.unmodifiableList(accepted);
+        fireSortOrderChanged();
+        rebuild();
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    public void setRowFilter(RowFilter<? super RecordsTableModel, ? super Integer> filter) {
+        this.filter = filter;
+        rebuild();
+    }
+
+    public RowFilter<? super RecordsTableModel, ? super Integer> getRowFilter() {
+        return filter;
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (viewToModel == null) {
+            if (index < 0 || index >= model.getRowCount()) throw new IndexOutOfBoundsException("Invalid index");
+            return index;
+        }
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (viewToModel == null) {
+            if (index < 0 || index >= model.getRowCount()) throw new IndexOutOfBoundsException("Invalid index");
+            return index;
+        }
+        if (modelToView == null) {
+            modelToView = new int[model.getRowCount()];
+            Arrays.fill(modelToView, -1);
+            for (int view = 0; view < viewToModel.length; view++) {
+                if (viewToModel[view] < modelToView.length) modelToView[viewToModel[view]] = view;
+            }
+        }
+        return index < modelToView.length ? modelToView[index] : -1;
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return viewToModel == null ? model.getRowCount() : viewToModel.length;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return model.getRowCount();
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        dropCaches();
+        sortKeys = Collections.emptyList();
+        rebuild();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        rebuild();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        if (isTransformed()) rebuild();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        if (isTransformed()) rebuild();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        // Like TableRowSorter's default, updates do not re-sort
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+    }
+
+    private boolean isTransformed() {
+        return !sortKeys.isEmpty() || filter != null;
+    }
+
+    // Cached orders are by slot, which mean nothing after the model is cleared
+    private void dropCaches() {
+        Arrays.fill(sortedSlots, null);
+        Arrays.fill(sortedCoverage, 0);
+        Arrays.fill(slotRanks, null);
+        nameRanks = new int[0];
+        generation = model.generation();
+        for (int i = 0; i < scoreVersions.length; i++) {
+            scoreVersions[i] = model.scoreVersion(i);
+        }
+    }
+
+    // A score column rewritten in place (RecordsTableModel.setScores) loses its cached
+    // order; the other columns keep theirs
+    private void dropIfRescored(int column) {
+        int scoreIndex = column - RecordsTableModel.FIRST_SCORE_COLUMN;
+        int version = model.scoreVersion(scoreIndex);
+        if (scoreVersions[scoreIndex] == version) return;
+        sortedSlots[column] = null;
+        sortedCoverage[column] = 0;
+        slotRanks[column] = null;
+        scoreVersions[scoreIndex] = version;
+    }
+
+    private void rebuild() {
+        if (generation != model.generation()) dropCaches();
+        int[] previous = viewToModel;
+        modelToView = null;
+        RecordsMetrics.SortEvent event = new RecordsMetrics.SortEvent();
+        event.begin();
+        long start = System.nanoTime();
+        if (!isTransformed()) {
+            viewToModel = null;
+        } else if (sortKeys.size() == 1) {
+            viewToModel = walkSorted(sortKeys.get(0));
+        } else {
+            int rows = model.getRowCount();
+            int[] view = new int[rows];
+            int count = 0;
+            for (int row = 0; row < rows; row++) {
+                if (include(row)) view[count++] = row;
+            }
+            if (count < rows) view = Arrays.copyOf(view, count);
+            // Least significant key first; each pass is stable so earlier passes break ties
+            for (int k = sortKeys.size() - 1; k >= 0; k--) {
+                view = sortRows(view, sortKeys.get(k));
+            }
+            viewToModel = view;
+        }
+        if (isTransformed()) {
+            RecordsMetrics.histogram("sort").record(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.keys = describe(sortKeys);
+                event.filtered = filter != null;
+                event.rows = getViewRowCount();
+                event.commit();
+            }
+        }
+        fireRowSorterChanged(previous);
+    }
+
+    private static String describe(List<SortKey> keys) {
+        StringBuilder text = new StringBuilder();
+        for (SortKey key : keys) {
+            if (text.length() > 0) text.append(", ");
+            text.append(RecordsTableModel.COLUMN_NAMES[key.getColumn()])
+                    .append(key.getSortOrder() == SortOrder.DESCENDING ? " desc" : " asc");
+        }
+        return text.toString();
+    }
+
+    // Single key: the cached slot order already is the answer, only deleted and
+    // filtered-out rows are dropped. Descending walks groups of equal keys backwards
+    // so ties stay in model order.
+    private int[] walkSorted(SortKey key) {
+        int column = key.getColumn();
+        int[] order = sortedSlots(column);
+        int length = sortedCoverage[column];
+        int[] view = new int[model.getRowCount()];
+        int count = 0;
+        if (key.getSortOrder() == SortOrder.ASCENDING) {
+            for (int i = 0; i < length; i++) {
+                int row = model.rowOfSlot(order[i]);
+                if (row >= 0 && include(row)) view[count++] = row;
+            }
+        } else {
+            int end = length;
+            while (end > 0) {
+                int start = end - 1;
+                while (start > 0 && compare(column, order[start - 1], order[end - 1]) == 0) start--;
+                for (int i = start; i < end; i++) {
+                    int row = model.rowOfSlot(order[i]);
+                    if (row >= 0 && include(row)) view[count++] = row;
+                }
+                end = start;
+            }
+        }
+        return count == view.length ? view : Arrays.copyOf(view, count);
+    }
+
+    private int[] sortRows(int[] rows, SortKey key) {
+        int column = key.getColumn();
+        int[] ranks = slotRanks(column);
+        int buckets = rankCounts[column];
+        boolean descending = key.getSortOrder() == SortOrder.DESCENDING;
+        int[] starts = new int[buckets + 1];
+        for (int row : rows) {
+            int rank = ranks[model.slotAt(row)];
+            starts[(descending ? buckets - 1 - rank : rank) + 1]++;
+        }
+        for (int i = 0; i < buckets; i++) starts[i + 1] += starts[i];
+        int[] sorted = new int[rows.length];
+        for (int row : rows) {
+            int rank = ranks[model.slotAt(row)];
+            sorted[starts[descending ? buckets - 1 - rank : rank]++] = row;
+        }
+        return sorted;
+    }
+
+    // Dense rank of every slot in the column: equal values share a rank
+    private int[] slotRanks(int column) {
+        int[] order = sortedSlots(column);
+        int covered = sortedCoverage[column];
+        int[] ranks = slotRanks[column];
+        if (ranks != null && ranks.length == covered) return ranks;
+        ranks = new int[covered];
+        int rank = 0;
+        for (int i = 0; i < covered; i++) {
+            if (i > 0 && compare(column, order[i - 1], order[i]) != 0) rank++;
+            ranks[order[i]] = rank;
+        }
+        slotRanks[column] = ranks;
+        rankCounts[column] = covered == 0 ? 0 : rank + 1;
+        return ranks;
+    }
+
+    private boolean include(int row) {
+        if (filter == null) return true;
+        entry.row = row;
+        return filter.include(entry);
+    }
+
+    // Slots of the column in ascending key order, extended to cover every slot
+    private int[] sortedSlots(int column) {
+        if (column >= RecordsTableModel.FIRST_SCORE_COLUMN) dropIfRescored(column);
+        int total = model.slotCount();
+        int covered = sortedCoverage[column];
+        int[] cached = sortedSlots[column];
+        if (cached != null && covered == total) return cached;
+        if (column == RecordsTableModel.FIRST_NAME_COLUMN || column == RecordsTableModel.LAST_NAME_COLUMN) {
+            rankNames();
+        }
+        int[] added = sortRange(column, covered, total);
+        int[] merged;
+        if (covered == 0) {
+            merged = added;
+        } else {
+            // Stable merge: on equal keys the older (smaller) slot stays first
+            merged = new int[total];
+            int i = 0, j = 0, k = 0;
+            while (i < covered && j < added.length) {
+                merged[k++] = compare(column, cached[i], added[j]) <= 0 ? cached[i++] : added[j++];
+            }
+            while (i < covered) merged[k++] = cached[i++];
+            while (j < added.length) merged[k++] = added[j++];
+        }
+        sortedSlots[column] = merged;
+        sortedCoverage[column] = total;
+        return merged;
+    }
+
+    // Sorts the slots from..to-1 of one column
+    private int[] sortRange(int column, int from, int to) {
+        int[] slots = new int[to - from];
+        for (int i = 0; i < slots.length; i++) slots[i] = from + i;
+        if (column == RecordsTableModel.ID_COLUMN) return radixSortIds(slots);
+        int buckets = column >= RecordsTableModel.FIRST_SCORE_COLUMN ? 101 : nameRanks.length;
+        return countingSort(slots, column, buckets);
+    }
+
+    private int[] countingSort(int[] slots, int column, int buckets) {
+        int[] starts = new int[buckets + 1];
+        for (int slot : slots) starts[intKey(column, slot) + 1]++;
+        for (int i = 0; i < buckets; i++) starts[i + 1] += starts[i];
+        int[] sorted = new int[slots.length];
+        for (int slot : slots) sorted[starts[intKey(column, slot)]++] = slot;
+        return sorted;
+    }
+
+    // LSD radix sort on (StudentID, digit width): width first, then the ID a byte at a time
+    private int[] radixSortIds(int[] slots) {
+        int[] sorted = new int[slots.length];
+        int[] counts = new int[256];
+        for (int slot : slots) counts[model.idWidthAt(slot)]++;
+        slots = scatter(slots, sorted, counts, -1);
+        sorted = new int[slots.length];
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int slot : slots) counts[(int) (model.idAt(slot) >>> shift) & 0xFF]++;
+            if (isSingleBucket(counts, slots.length)) continue; // every ID shares this byte
+            int[] next = scatter(slots, sorted, counts, shift);
+            sorted = slots;
+            slots = next;
+        }
+        return slots;
+    }
+
+    private int[] scatter(int[] from, int[] to, int[] counts, int shift) {
+        int total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            int count = counts[i];
+            counts[i] = total;
+            total += count;
+        }
+        for (int slot : from) {
+            int bucket = shift < 0 ? model.idWidthAt(slot) : (int) (model.idAt(slot) >>> shift) & 0xFF;
+            to[counts[bucket]++] = slot;
+        }
+        return to;
+    }
+
+    private static boolean isSingleBucket(int[] counts, int total) {
+        for (int count : counts) {
+            if (count != 0) return count == total;
+        }
+        return true;
+    }
+
+    private int compare(int column, int a, int b) {
+        if (column == RecordsTableModel.ID_COLUMN) {
+            int byId = Long.compare(model.idAt(a), model.idAt(b));
+            return byId != 0 ? byId : Integer.compare(model.idWidthAt(a), model.idWidthAt(b));
+        }
+        return Integer.compare(intKey(column, a), intKey(column, b));
+    }
+
+    private int intKey(int column, int slot) {
+        switch (column) {
+            case RecordsTableModel.FIRST_NAME_COLUMN:
+                return nameRanks[model.firstNameAt(slot)];
+            case RecordsTableModel.LAST_NAME_COLUMN:
+                return nameRanks[model.lastNameAt(slot)];
+            default:
+                return model.scoreAt(slot, column - RecordsTableModel.FIRST_SCORE_COLUMN);
+        }
+    }
+
+    // Collation rank of every distinct name. New names only slot in between existing
+    // ones, so orders already cached stay valid after re-ranking.
+    private void rankNames() {
+        StringPool names = model.names();
+        int size = names.size();
+        if (size == nameRanks.length) return;
+        Collator collator = Collator.getInstance();
+        CollationKey[] keys = new CollationKey[size];
+        Integer[] codes = new Integer[size];
+        for (int code = 0; code < size; code++) {
+            keys[code] = collator.getCollationKey(names.get(code));
+            codes[code] = code;
+        }
+        Arrays.sort(codes, (a, b) -> keys[a].compareTo(keys[b]));
+        int[] ranks = new int[size];
+        int rank = 0;
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && keys[codes[i]].compareTo(keys[codes[i - 1]]) != 0) rank++;
+            ranks[codes[i]] = rank;
+        }
+        nameRanks = ranks;
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= model.getColumnCount()) {
+            throw new IndexOutOfBoundsException("Column " + column + " out of range");
+        }
+    }
+
+    private class FilterEntry extends RowFilter.Entry<RecordsTableModel, Integer> {
+        int row;
+
+        @Override
+        public RecordsTableModel getModel() {
+            return model;
+        }
+
+        @Override
+        public int getValueCount() {
+            return model.getColumnCount();
+        }
+
+        @Override
+        public Object getValue(int index) {
+            return model.getValueAt(row, index);
+        }
+
+        @Override
+        public Integer getIdentifier() {
+            return row;
+        }
+    }
+}
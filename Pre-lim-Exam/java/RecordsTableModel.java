@@ -0,0 +1,440 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// Class records stored column by column in primitive arrays. Cell objects are only
+// created when the JTable asks for them.
+public class RecordsTableModel extends AbstractTableModel {
+    static final String[] COLUMN_NAMES = {
+            "StudentID",
+            "first_name",
+            "last_name",
+            "LAB WORK 1",
+            "LAB WORK 2",
+            "LAB WORK 3",
+            "PRELIM EXAM",
+            "ATTENDANCE GRADE"
+    };
+    static final int ID_COLUMN = 0;
+    static final int FIRST_NAME_COLUMN = 1;
+    static final int LAST_NAME_COLUMN = 2;
+    static final int FIRST_SCORE_COLUMN = 3;
+    static final int SCORE_COUNT = 5;
+
+    private final StringPool names = new StringPool();
+
+    // Column data is indexed by slot. Slots are append-only, so deleting a row
+    // only moves the small row -> slot mapping and never the column data.
+    private long[] ids = new long[1024];
+    private byte[] idWidths = new byte[1024]; // digits in the StudentID, keeps leading zeros
+    private int[] firstNames = new int[1024];
+    private int[] lastNames = new int[1024];
+    private final byte[][] scores = new byte[SCORE_COUNT][1024];
+    private int slotCount;
+
+    private int[] rowSlots = new int[1024];
+    private int[] slotRows = new int[1024]; // -1 once the slot's row is deleted
+    private int rowCount;
+
+    private LongIntHashMap idSlots = new LongIntHashMap(); // StudentID -> slot of a live row
+    private int generation; // bumped by clear(), which makes every slot number stale
+    private final int[] scoreVersions = new int[SCORE_COUNT]; // bumped when setScores changes a column
+
+    private final List<RecordsListener> recordsListeners = new ArrayList<>();
+
+    // Told about storage slots (not rows) so indexes keep working while rows shift
+    interface RecordsListener {
+        void recordsAdded(int firstSlot, int lastSlot);
+
+        void recordsRemoved(int[] slots, int count);
+
+        // Every record is about to be dropped and slots start again from 0
+        void recordsCleared();
+
+        // One score column was rewritten in place: the model already holds the new
+        // values, oldScores[n] is what slots[n] held before
+        void scoresChanged(int scoreIndex, int[] slots, int[] oldScores, int count);
+    }
+
+    void addRecordsListener(RecordsListener listener) {
+        recordsListeners.add(listener);
+    }
+
+    void removeRecordsListener(RecordsListener listener) {
+        recordsListeners.remove(listener);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column < FIRST_SCORE_COLUMN ? String.class : Integer.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int slot = rowSlots[row];
+        switch (column) {
+            case ID_COLUMN:
+                return formatId(ids[slot], idWidths[slot]);
+            case FIRST_NAME_COLUMN:
+                return names.get(firstNames[slot]);
+            case LAST_NAME_COLUMN:
+                return names.get(lastNames[slot]);
+            default:
+                // Integer.valueOf is cached for 0-100, so score cells never allocate
+                return Integer.valueOf(scores[column - FIRST_SCORE_COLUMN][slot]);
+        }
+    }
+
+    // Appends a row given as text, the same shape DefaultTableModel.addRow accepted
+    public void addRow(Object[] values) {
+        String id = values[ID_COLUMN].toString().trim();
+        int[] rowScores = new int[SCORE_COUNT];
+        for (int i = 0; i < SCORE_COUNT; i++) {
+            rowScores[i] = parseScore(COLUMN_NAMES[FIRST_SCORE_COLUMN + i], values[FIRST_SCORE_COLUMN + i].toString());
+        }
+        addRecord(parseId(id), id.length(),
+                values[FIRST_NAME_COLUMN].toString().trim(),
+                values[LAST_NAME_COLUMN].toString().trim(),
+                rowScores);
+    }
+
+    public void addRecord(long id, int idWidth, String firstName, String lastName, int[] rowScores) {
+        addRecord(id, idWidth, names.intern(firstName), names.intern(lastName), rowScores);
+    }
+
+    // Names are codes from names(), e.g. interned by a CsvRecordParser sharing the pool
+    void addRecord(long id, int idWidth, int firstName, int lastName, int[] rowScores) {
+        if (idSlots.containsKey(id)) {
+            throw new IllegalArgumentException("StudentID " + formatId(id, idWidth) + " already exists.");
+        }
+        int slot = newSlot();
+        idSlots.put(id, slot);
+        ids[slot] = id;
+        idWidths[slot] = (byte) idWidth;
+        firstNames[slot] = firstName;
+        lastNames[slot] = lastName;
+        for (int i = 0; i < SCORE_COUNT; i++) {
+            scores[i][slot] = (byte) rowScores[i];
+        }
+        int row = rowCount;
+        rowSlots[rowCount++] = slot;
+        slotRows[slot] = row;
+        for (RecordsListener listener : recordsListeners) {
+            listener.recordsAdded(slot, slot);
+        }
+        fireTableRowsInserted(row, row);
+    }
+
+    // Appends a block of records (name codes from names()) with a single listener call
+    // and a single table event, growing storage at most once. The columns must not be
+    // changed afterwards: an empty model adopts their arrays instead of copying them.
+    // Records whose StudentID is already present are dropped; returns how many.
+    int appendColumns(RecordColumns columns) {
+        int firstSlot = slotCount;
+        int kept = 0;
+        if (slotCount == 0 && columns.idIndex != null) {
+            // Already de-duplicated off the Event Dispatch Thread, positions are the slots
+            idSlots = columns.idIndex;
+            kept = columns.size;
+        } else {
+            idSlots.ensureCapacity(idSlots.size() + columns.size);
+        }
+        BitSet duplicates = null;
+        for (int i = kept; i < columns.size; i++) {
+            if (idSlots.putIfAbsent(columns.ids[i], firstSlot + kept) < 0) {
+                kept++;
+            } else {
+                if (duplicates == null) duplicates = new BitSet(columns.size);
+                duplicates.set(i);
+            }
+        }
+        int dropped = columns.size - kept;
+        if (duplicates != null) {
+            BitSet skip = duplicates;
+            columns.retain(i -> !skip.get(i));
+        }
+        int count = columns.size;
+        if (count == 0) return dropped;
+        if (slotCount == 0 && columns.ids.length >= ids.length) {
+            ids = columns.ids;
+            idWidths = columns.idWidths;
+            firstNames = columns.firstNames;
+            lastNames = columns.lastNames;
+            for (int i = 0; i < SCORE_COUNT; i++) {
+                scores[i] = columns.scores[i];
+            }
+            slotRows = new int[ids.length];
+            ensureCapacity(count, rowCount + count);
+        } else {
+            ensureCapacity(slotCount + count, rowCount + count);
+            System.arraycopy(columns.ids, 0, ids, firstSlot, count);
+            System.arraycopy(columns.idWidths, 0, idWidths, firstSlot, count);
+            System.arraycopy(columns.firstNames, 0, firstNames, firstSlot, count);
+            System.arraycopy(columns.lastNames, 0, lastNames, firstSlot, count);
+            for (int i = 0; i < SCORE_COUNT; i++) {
+                System.arraycopy(columns.scores[i], 0, scores[i], firstSlot, count);
+            }
+        }
+        slotCount += count;
+        int firstRow = rowCount;
+        for (int i = 0; i < count; i++) {
+            rowSlots[firstRow + i] = firstSlot + i;
+            slotRows[firstSlot + i] = firstRow + i;
+        }
+        rowCount += count;
+        for (RecordsListener listener : recordsListeners) {
+            listener.recordsAdded(firstSlot, slotCount - 1);
+        }
+        fireTableRowsInserted(firstRow, rowCount - 1);
+        return dropped;
+    }
+
+    public void removeRow(int row) {
+        removeRows(new int[]{row});
+    }
+
+    // Removes the given model rows in one pass over the row mapping and fires a
+    // single table event
+    public void removeRows(int[] rows) {
+        if (rows.length == 0) return;
+        int[] sorted = rows.clone();
+        Arrays.sort(sorted);
+        int[] removed = new int[sorted.length];
+        int count = 0;
+        int write = sorted[0];
+        int next = 0;
+        for (int row = sorted[0]; row < rowCount; row++) {
+            int slot = rowSlots[row];
+            if (next < sorted.length && sorted[next] == row) {
+                while (next < sorted.length && sorted[next] == row) next++; // ignore repeats
+                removed[count++] = slot;
+                slotRows[slot] = -1;
+                idSlots.remove(ids[slot]);
+            } else {
+                rowSlots[write] = slot;
+                slotRows[slot] = write++;
+            }
+        }
+        int first = sorted[0];
+        int last = sorted[sorted.length - 1];
+        rowCount = write;
+        for (RecordsListener listener : recordsListeners) {
+            listener.recordsRemoved(removed, count);
+        }
+        if (last - first + 1 == count) {
+            fireTableRowsDeleted(first, last);
+        } else {
+            fireTableDataChanged();
+        }
+    }
+
+    // Replaces one score column's value for the given (distinct) slots, e.g. grades
+    // derived from another source. Deleted slots and unchanged scores are skipped, so
+    // listeners and the table only hear about real changes; returns how many.
+    int setScores(int scoreIndex, int[] slots, int[] values, int count) {
+        for (int n = 0; n < count; n++) {
+            if (values[n] < 0 || values[n] > 100) {
+                throw new IllegalArgumentException(COLUMN_NAMES[FIRST_SCORE_COLUMN + scoreIndex]
+                        + " must be a whole number from 0 to 100.");
+            }
+        }
+        byte[] column = scores[scoreIndex];
+        int[] changed = new int[count];
+        int[] oldScores = new int[count];
+        int changes = 0;
+        int firstRow = Integer.MAX_VALUE;
+        int lastRow = -1;
+        for (int n = 0; n < count; n++) {
+            int slot = slots[n];
+            int row = slotRows[slot];
+            if (row < 0 || column[slot] == values[n]) continue;
+            oldScores[changes] = column[slot];
+            changed[changes++] = slot;
+            column[slot] = (byte) values[n];
+            firstRow = Math.min(firstRow, row);
+            lastRow = Math.max(lastRow, row);
+        }
+        if (changes == 0) return 0;
+        scoreVersions[scoreIndex]++;
+        for (RecordsListener listener : recordsListeners) {
+            listener.scoresChanged(scoreIndex, changed, oldScores, changes);
+        }
+        fireTableChanged(new TableModelEvent(this, firstRow, lastRow, FIRST_SCORE_COLUMN + scoreIndex));
+        return changes;
+    }
+
+    // Drops every record, e.g. before the CSV is read again from the start. Listeners
+    // are told first, while the old slots are still readable.
+    public void clear() {
+        for (RecordsListener listener : recordsListeners) {
+            listener.recordsCleared();
+        }
+        ids = new long[1024];
+        idWidths = new byte[1024];
+        firstNames = new int[1024];
+        lastNames = new int[1024];
+        for (int i = 0; i < SCORE_COUNT; i++) {
+            scores[i] = new byte[1024];
+        }
+        slotCount = 0;
+        rowSlots = new int[1024];
+        slotRows = new int[1024];
+        rowCount = 0;
+        idSlots = new LongIntHashMap();
+        generation++;
+        fireTableDataChanged();
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    int scoreVersion(int scoreIndex) {
+        return scoreVersions[scoreIndex];
+    }
+
+    // Model row holding the StudentID, or -1
+    int rowOfId(long id) {
+        int slot = idSlots.get(id);
+        return slot < 0 ? -1 : slotRows[slot];
+    }
+
+    boolean containsId(long id) {
+        return idSlots.containsKey(id);
+    }
+
+    int slotAt(int row) {
+        return rowSlots[row];
+    }
+
+    int rowOfSlot(int slot) {
+        return slotRows[slot];
+    }
+
+    int slotCount() {
+        return slotCount;
+    }
+
+    long idAt(int slot) {
+        return ids[slot];
+    }
+
+    int idWidthAt(int slot) {
+        return idWidths[slot];
+    }
+
+    int scoreAt(int slot, int scoreIndex) {
+        return scores[scoreIndex][slot];
+    }
+
+    // Copy of the slots' columns, in the given order, that stays valid whatever the
+    // model does afterwards (clear() included); name codes still refer to names()
+    RecordColumns copySlots(int[] slots) {
+        return copySlots(slots, 0, slots.length);
+    }
+
+    // Same, for slots[from] up to but not including slots[to]
+    RecordColumns copySlots(int[] slots, int from, int to) {
+        RecordColumns copy = new RecordColumns(to - from);
+        for (int n = 0; n < to - from; n++) {
+            int slot = slots[from + n];
+            copy.ids[n] = ids[slot];
+            copy.idWidths[n] = idWidths[slot];
+            copy.firstNames[n] = firstNames[slot];
+            copy.lastNames[n] = lastNames[slot];
+            for (int i = 0; i < SCORE_COUNT; i++) {
+                copy.scores[i][n] = scores[i][slot];
+            }
+        }
+        copy.size = to - from;
+        return copy;
+    }
+
+    StringPool names() {
+        return names;
+    }
+
+    int firstNameAt(int slot) {
+        return firstNames[slot];
+    }
+
+    int lastNameAt(int slot) {
+        return lastNames[slot];
+    }
+
+    private int newSlot() {
+        ensureCapacity(slotCount + 1, rowCount + 1);
+        return slotCount++;
+    }
+
+    private void ensureCapacity(int slots, int rows) {
+        if (slots > ids.length) {
+            int capacity = Math.max(ids.length * 2, slots);
+            ids = Arrays.copyOf(ids, capacity);
+            idWidths = Arrays.copyOf(idWidths, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+            slotRows = Arrays.copyOf(slotRows, capacity);
+            for (int i = 0; i < SCORE_COUNT; i++) {
+                scores[i] = Arrays.copyOf(scores[i], capacity);
+            }
+        }
+        if (rows > rowSlots.length) {
+            rowSlots = Arrays.copyOf(rowSlots, Math.max(rowSlots.length * 2, rows));
+        }
+    }
+
+    static String formatId(long id, int width) {
+        String digits = Long.toString(id);
+        if (digits.length() >= width) return digits;
+        char[] padded = new char[width];
+        int zeros = width - digits.length();
+        Arrays.fill(padded, 0, zeros, '0');
+        digits.getChars(0, digits.length(), padded, zeros);
+        return new String(padded);
+    }
+
+    static long parseId(String id) {
+        if (id.isEmpty() || id.length() > 18) {
+            throw new IllegalArgumentException("StudentID must be 1 to 18 digits.");
+        }
+        long value = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("StudentID must contain digits only.");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    static int parseScore(String column, String text) {
+        try {
+            int score = Integer.parseInt(text.trim());
+            if (score >= 0 && score <= 100) return score;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(column + " must be a whole number from 0 to 100.");
+    }
+}
@@ -0,0 +1,145 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+
+// Follows a records CSV that other tools append to. Only the bytes past the saved
+// offset are read, and only complete lines are parsed; a line still being written
+// is picked up on the next change. If the file shrinks or is replaced by another
+// file (rotation), the listener is asked to reload it from scratch.
+public class RecordsTail {
+    private static final int READ_LIMIT = 16 << 20; // bytes parsed per pass
+    private static final long POLL_SECONDS = 2;     // some file systems deliver events late
+
+    // Called on the Event Dispatch Thread
+    interface Listener {
+        // offset is how much of the file has been read once these records are added;
+        // records may be empty when only invalid lines were read
+        void recordsAppended(RecordColumns records, long offset);
+
+        void fileReplaced();
+    }
+
+    private final Path file;
+    private final StringPool names;
+    private final Listener listener;
+    private final Object identity;
+    private long offset;
+    private int invalidRows;
+    private volatile boolean running = true;
+    private WatchService watcher;
+    private Thread thread;
+
+    // Starts following file from offset, the number of bytes already loaded from the
+    // file with this identity; if the file has been replaced since, the listener is
+    // told on the first check
+    RecordsTail(Path file, Object identity, long offset, StringPool names, Listener listener) {
+        this.file = file.toAbsolutePath();
+        this.identity = identity;
+        this.offset = offset;
+        this.names = names;
+        this.listener = listener;
+    }
+
+    void start() throws IOException {
+        watcher = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        thread = new Thread(this::watchLoop, "records-tail");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        try {
+            if (watcher != null) watcher.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    int invalidRows() {
+        return invalidRows;
+    }
+
+    // File identity: the inode-like file key where the platform has one, otherwise
+    // the creation time
+    static Object identity(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+    }
+
+    private void watchLoop() {
+        try {
+            while (running) {
+                WatchKey key = watcher.poll(POLL_SECONDS, TimeUnit.SECONDS);
+                if (key != null) {
+                    // Any event in the directory is just a hint to look at the file again
+                    for (WatchEvent<?> ignored : key.pollEvents()) {
+                    }
+                    key.reset();
+                }
+                if (!check()) return;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+
+    // Reads whatever was appended; returns false once the file has been replaced
+    private boolean check() {
+        try {
+            if (!identity.equals(identity(file)) || Files.size(file) < offset) {
+                running = false;
+                SwingUtilities.invokeLater(listener::fileReplaced);
+                return false;
+            }
+            readAppended();
+        } catch (NoSuchFileException e) {
+            // Between a delete and the replacement showing up; the next pass decides
+        } catch (IOException e) {
+            // Transient read failure (e.g. the writer holds a lock); retried on the next pass
+        }
+        return true;
+    }
+
+    private void readAppended() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvRecordParser parser = new CsvRecordParser(names);
+            while (running) {
+                long available = channel.size() - offset;
+                if (available <= 0) return;
+                ByteBuffer bytes = ByteBuffer.allocate((int) Math.min(available, READ_LIMIT));
+                while (bytes.hasRemaining() && channel.read(bytes, offset + bytes.position()) > 0) {
+                }
+                bytes.flip();
+                RecordColumns appended = new RecordColumns(1024);
+                int consumed = parser.parse(bytes, false, row -> {
+                    appended.add(row);
+                    return true;
+                });
+                if (consumed == 0) return; // only a partial line so far
+                offset += consumed;
+                invalidRows = parser.invalidRows();
+                long reached = offset;
+                SwingUtilities.invokeLater(() -> {
+                    if (running) listener.recordsAppended(appended, reached); // not after stop()
+                });
+            }
+        }
+    }
+}
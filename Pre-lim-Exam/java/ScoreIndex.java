@@ -0,0 +1,127 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.util.BitSet;
+import java.util.List;
+
+// Per-column index of the five score columns. Scores are 0-100, so each column is
+// just 101 buckets of slots: a range condition is the union of its buckets and a
+// conjunction is the intersection of the ranges.
+public class ScoreIndex implements RecordsTableModel.RecordsListener {
+    private final RecordsTableModel model;
+    private final IntList[][] buckets = new IntList[RecordsTableModel.SCORE_COUNT][101];
+    private int slotLimit;
+
+    public ScoreIndex(RecordsTableModel model) {
+        this.model = model;
+        for (IntList[] column : buckets) {
+            for (int score = 0; score <= 100; score++) {
+                column[score] = new IntList();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void recordsAdded(int firstSlot, int lastSlot) {
+        for (int slot = firstSlot; slot <= lastSlot; slot++) {
+            for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+                buckets[i][model.scoreAt(slot, i)].add(slot);
+            }
+        }
+        slotLimit = Math.max(slotLimit, lastSlot + 1);
+    }
+
+    // Each bucket holding a removed slot is compacted once, however many of its slots went
+    @Override
+    public synchronized void recordsRemoved(int[] slots, int count) {
+        BitSet removed = new BitSet(slotLimit);
+        boolean[][] touched = new boolean[RecordsTableModel.SCORE_COUNT][101];
+        for (int n = 0; n < count; n++) {
+            removed.set(slots[n]);
+            for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+                touched[i][model.scoreAt(slots[n], i)] = true;
+            }
+        }
+        for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+            for (int score = 0; score <= 100; score++) {
+                if (touched[i][score]) buckets[i][score].removeAll(removed);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void recordsCleared() {
+        for (IntList[] column : buckets) {
+            for (IntList bucket : column) {
+                bucket.clear();
+            }
+        }
+        slotLimit = 0;
+    }
+
+    @Override
+    public synchronized void scoresChanged(int scoreIndex, int[] slots, int[] oldScores, int count) {
+        IntList[] column = buckets[scoreIndex];
+        if (count > slotLimit / 16) {
+            // Cheaper to refill the column's buckets in slot order than to shift
+            // every posting list once per moved slot
+            for (IntList bucket : column) {
+                bucket.clear();
+            }
+            for (int slot = 0; slot < slotLimit; slot++) {
+                if (model.rowOfSlot(slot) >= 0) column[model.scoreAt(slot, scoreIndex)].add(slot);
+            }
+            return;
+        }
+        for (int n = 0; n < count; n++) {
+            column[oldScores[n]].removeSorted(slots[n]);
+            column[model.scoreAt(slots[n], scoreIndex)].addSorted(slots[n]);
+        }
+    }
+
+    public synchronized BitSet evaluate(RecordQuery query) {
+        List<RecordQuery.Condition> conditions = query.conditions();
+        // Start from the most selective condition so the intersections stay small
+        RecordQuery.Condition first = conditions.get(0);
+        for (RecordQuery.Condition condition : conditions) {
+            if (count(condition) < count(first)) first = condition;
+        }
+        BitSet matches = slots(first);
+        if (conditions.size() == 1) return matches;
+        // The remaining conditions only need checking against the surviving slots
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            for (RecordQuery.Condition condition : conditions) {
+                if (condition == first) continue;
+                int score = model.scoreAt(slot, condition.scoreIndex);
+                if (score < condition.min || score > condition.max) {
+                    matches.clear(slot);
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Number of records with a score in the range, without touching the slots
+    synchronized int count(int scoreIndex, int min, int max) {
+        int count = 0;
+        for (int score = min; score <= max; score++) {
+            count += buckets[scoreIndex][score].size();
+        }
+        return count;
+    }
+
+    private int count(RecordQuery.Condition condition) {
+        return count(condition.scoreIndex, condition.min, condition.max);
+    }
+
+    private BitSet slots(RecordQuery.Condition condition) {
+        BitSet slots = new BitSet(slotLimit);
+        for (int score = condition.min; score <= condition.max; score++) {
+            IntList bucket = buckets[condition.scoreIndex][score];
+            for (int i = 0; i < bucket.size(); i++) {
+                slots.set(bucket.get(i));
+            }
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,304 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Substring index over StudentID, first_name and last_name.
+// StudentIDs are indexed by digit trigrams per slot. Names are indexed once per
+// distinct name in the StringPool (trigrams -> name codes, name code -> slots), so
+// a lookup only touches the rows that can actually match. Posting lists are kept
+// in ascending order so they can be intersected without hashing.
+public class SearchIndex implements RecordsTableModel.RecordsListener {
+    private static final int CATCH_UP_CHUNK = 65536;
+
+    private final RecordsTableModel model;
+    private final Executor maintenance;
+
+    private final IntList[] idTrigrams = new IntList[1000];
+    private final IntList shortIds = new IntList(); // IDs under 3 digits have no trigram
+    private final Map<Long, IntList> nameTrigrams = new HashMap<>();
+    private IntList[] nameSlots = new IntList[256];
+    private String[] lowerNames = new String[256];
+    private int indexedNames;
+    private int indexedSlots;
+
+    // Adds only bump this counter, so the EDT never waits for indexing work
+    private final AtomicInteger addedSlots = new AtomicInteger();
+    private final AtomicBoolean catchUpQueued = new AtomicBoolean();
+
+    // New rows are indexed on the maintenance executor, off the Event Dispatch Thread
+    public SearchIndex(RecordsTableModel model, Executor maintenance) {
+        this.model = model;
+        this.maintenance = maintenance;
+        for (int i = 0; i < idTrigrams.length; i++) {
+            idTrigrams[i] = new IntList();
+        }
+    }
+
+    @Override
+    public void recordsAdded(int firstSlot, int lastSlot) {
+        addedSlots.accumulateAndGet(lastSlot + 1, Math::max);
+        if (catchUpQueued.compareAndSet(false, true)) {
+            maintenance.execute(() -> {
+                catchUpQueued.set(false);
+                catchUp();
+            });
+        }
+    }
+
+    // Each posting list holding a removed slot is compacted once, however many of its
+    // slots went. Slots not indexed yet are left to catchUp(), which skips deleted ones,
+    // so a delete during a load never indexes on the Event Dispatch Thread.
+    @Override
+    public synchronized void recordsRemoved(int[] slots, int count) {
+        BitSet removed = new BitSet(indexedSlots);
+        boolean[] touchedTrigrams = new boolean[idTrigrams.length];
+        boolean touchedShortIds = false;
+        BitSet touchedNames = new BitSet(indexedNames);
+        byte[] digits = new byte[20];
+        for (int n = 0; n < count; n++) {
+            int slot = slots[n];
+            if (slot >= indexedSlots) continue;
+            removed.set(slot);
+            int length = digits(slot, digits);
+            if (length < 3) touchedShortIds = true;
+            for (int i = 0; i + 3 <= length; i++) {
+                touchedTrigrams[digits[i] * 100 + digits[i + 1] * 10 + digits[i + 2]] = true;
+            }
+            touchedNames.set(model.firstNameAt(slot));
+            touchedNames.set(model.lastNameAt(slot));
+        }
+        if (removed.isEmpty()) return;
+        if (touchedShortIds) shortIds.removeAll(removed);
+        for (int key = 0; key < idTrigrams.length; key++) {
+            if (touchedTrigrams[key]) idTrigrams[key].removeAll(removed);
+        }
+        for (int code = touchedNames.nextSetBit(0); code >= 0; code = touchedNames.nextSetBit(code + 1)) {
+            nameSlots[code].removeAll(removed);
+        }
+    }
+
+    // Name trigrams stay: they are keyed by name code and the StringPool is kept
+    @Override
+    public synchronized void recordsCleared() {
+        for (IntList posting : idTrigrams) {
+            posting.clear();
+        }
+        shortIds.clear();
+        for (int code = 0; code < indexedNames; code++) {
+            nameSlots[code].clear();
+        }
+        indexedSlots = 0;
+        addedSlots.set(0);
+    }
+
+    @Override
+    public void scoresChanged(int scoreIndex, int[] slots, int[] oldScores, int count) {
+        // Only StudentIDs and names are indexed here
+    }
+
+    // Indexes everything added so far, a chunk at a time so searches can interleave
+    public void catchUp() {
+        while (true) {
+            synchronized (this) {
+                int target = addedSlots.get();
+                if (indexedSlots >= target) return;
+                indexUpTo(Math.min(target, indexedSlots + CATCH_UP_CHUNK));
+            }
+        }
+    }
+
+    // Slots whose StudentID or name contains the text, ignoring case. Throws
+    // CancellationException if the calling thread is interrupted part way.
+    public BitSet search(String text) {
+        catchUp();
+        synchronized (this) {
+            String query = text.trim().toLowerCase(Locale.ROOT);
+            BitSet matches = new BitSet(indexedSlots);
+            if (query.isEmpty()) return matches;
+            searchNames(query, matches);
+            if (isDigits(query)) searchIds(query, matches);
+            return matches;
+        }
+    }
+
+    private void indexUpTo(int end) {
+        byte[] digits = new byte[20];
+        for (int slot = indexedSlots; slot < end; slot++) {
+            if (model.rowOfSlot(slot) < 0) continue; // deleted before it was indexed
+            int length = digits(slot, digits);
+            if (length < 3) shortIds.add(slot);
+            for (int i = 0; i + 3 <= length; i++) {
+                IntList posting = idTrigrams[digits[i] * 100 + digits[i + 1] * 10 + digits[i + 2]];
+                if (posting.size() == 0 || posting.last() != slot) posting.add(slot);
+            }
+            int first = model.firstNameAt(slot);
+            int last = model.lastNameAt(slot);
+            namePosting(first).add(slot);
+            if (last != first) namePosting(last).add(slot);
+        }
+        indexedSlots = Math.max(indexedSlots, end);
+    }
+
+    private void searchNames(String query, BitSet matches) {
+        IntList candidates = null;
+        if (query.length() >= 3) {
+            IntList[] postings = new IntList[query.length() - 2];
+            for (int i = 0; i < postings.length; i++) {
+                postings[i] = nameTrigrams.get(trigram(query, i));
+                if (postings[i] == null) return;
+            }
+            candidates = intersect(postings);
+        }
+        int count = candidates == null ? indexedNames : candidates.size();
+        for (int i = 0; i < count; i++) {
+            checkCancelled(i);
+            int code = candidates == null ? i : candidates.get(i);
+            if (!lowerNames[code].contains(query)) continue;
+            IntList slots = nameSlots[code];
+            for (int j = 0; j < slots.size(); j++) {
+                matches.set(slots.get(j));
+            }
+        }
+    }
+
+    private void searchIds(String query, BitSet matches) {
+        byte[] needle = new byte[query.length()];
+        for (int i = 0; i < needle.length; i++) {
+            needle[i] = (byte) (query.charAt(i) - '0');
+        }
+        byte[] digits = new byte[20];
+        for (int i = 0; i < shortIds.size(); i++) {
+            int slot = shortIds.get(i);
+            if (contains(digits, digits(slot, digits), needle)) matches.set(slot);
+        }
+        if (needle.length < 3) {
+            // Every trigram containing the 1-2 digits contributes its whole posting list
+            for (int key = 0; key < idTrigrams.length; key++) {
+                int a = key / 100, b = key / 10 % 10, c = key % 10;
+                boolean hit = needle.length == 1
+                        ? a == needle[0] || b == needle[0] || c == needle[0]
+                        : (a == needle[0] && b == needle[1]) || (b == needle[0] && c == needle[1]);
+                if (!hit) continue;
+                IntList posting = idTrigrams[key];
+                for (int j = 0; j < posting.size(); j++) {
+                    checkCancelled(j);
+                    matches.set(posting.get(j));
+                }
+            }
+            return;
+        }
+        IntList[] postings = new IntList[needle.length - 2];
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = idTrigrams[needle[i] * 100 + needle[i + 1] * 10 + needle[i + 2]];
+        }
+        IntList candidates = intersect(postings);
+        for (int i = 0; i < candidates.size(); i++) {
+            checkCancelled(i);
+            int slot = candidates.get(i);
+            // Sharing every trigram does not guarantee they appear in sequence
+            if (needle.length == 3 || contains(digits, digits(slot, digits), needle)) matches.set(slot);
+        }
+    }
+
+    // Values present in every ascending posting list, galloping through the longer lists
+    private static IntList intersect(IntList[] postings) {
+        IntList[] lists = postings.clone();
+        Arrays.sort(lists, (x, y) -> Integer.compare(x.size(), y.size()));
+        IntList smallest = lists[0];
+        IntList result = new IntList(smallest.size());
+        int[] cursors = new int[lists.length];
+        outer:
+        for (int i = 0; i < smallest.size(); i++) {
+            checkCancelled(i);
+            int value = smallest.get(i);
+            for (int l = 1; l < lists.length; l++) {
+                IntList list = lists[l];
+                int lo = cursors[l];
+                int step = 1;
+                int hi = lo;
+                while (hi < list.size() && list.get(hi) < value) {
+                    lo = hi + 1;
+                    hi += step;
+                    step <<= 1;
+                }
+                hi = Math.min(hi, list.size());
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (list.get(mid) < value) lo = mid + 1; else hi = mid;
+                }
+                cursors[l] = lo;
+                if (lo == list.size()) break outer;
+                if (list.get(lo) != value) continue outer;
+            }
+            result.add(value);
+        }
+        return result;
+    }
+
+    private IntList namePosting(int code) {
+        while (indexedNames <= code) {
+            if (indexedNames == nameSlots.length) {
+                nameSlots = Arrays.copyOf(nameSlots, nameSlots.length * 2);
+                lowerNames = Arrays.copyOf(lowerNames, lowerNames.length * 2);
+            }
+            String name = model.names().get(indexedNames).toLowerCase(Locale.ROOT);
+            lowerNames[indexedNames] = name;
+            nameSlots[indexedNames] = new IntList();
+            for (int i = 0; i + 3 <= name.length(); i++) {
+                IntList posting = nameTrigrams.computeIfAbsent(trigram(name, i), k -> new IntList());
+                if (posting.size() == 0 || posting.last() != indexedNames) posting.add(indexedNames);
+            }
+            indexedNames++;
+        }
+        return nameSlots[code];
+    }
+
+    // Writes the StudentID digits (with leading zeros) of a slot, returns the count
+    private int digits(int slot, byte[] out) {
+        long id = model.idAt(slot);
+        int length = 0;
+        for (long rest = id; rest > 0; rest /= 10) length++;
+        length = Math.max(length, model.idWidthAt(slot));
+        for (int i = length - 1; i >= 0; i--) {
+            out[i] = (byte) (id % 10);
+            id /= 10;
+        }
+        return length;
+    }
+
+    private static boolean contains(byte[] haystack, int length, byte[] needle) {
+        outer:
+        for (int i = 0; i + needle.length <= length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static long trigram(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    private static boolean isDigits(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') return false;
+        }
+        return true;
+    }
+
+    private static void checkCancelled(int iteration) {
+        if ((iteration & 4095) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search superseded by a newer query");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Finds the per-section CSV files to show together and parses one file at a time
+// into columns. Each file is parsed against its own StringPool, so parser threads
+// never contend on the shared one; only its distinct names are interned afterwards.
+public class SectionLoader {
+    private SectionLoader() {
+    }
+
+    // A CSV file, a directory (its *.csv files) or a glob such as sections/BSIT-*.csv
+    static List<Path> resolve(String spec) throws IOException {
+        int glob = firstGlobChar(spec);
+        if (glob < 0) {
+            Path path = Paths.get(spec);
+            if (Files.isDirectory(path)) return matching(path, "*.csv");
+            return Files.isRegularFile(path) ? Collections.singletonList(path) : Collections.emptyList();
+        }
+        int slash = Math.max(spec.lastIndexOf('/', glob), spec.lastIndexOf('\\', glob));
+        Path directory = slash < 0 ? Paths.get(".") : Paths.get(spec.substring(0, slash + 1));
+        return matching(directory, spec.substring(slash + 1));
+    }
+
+    // Parses a file into columns whose name codes belong to names
+    static RecordColumns parse(Path file, StringPool names) throws IOException {
+        StringPool local = new StringPool();
+        CsvRecordParser parser = new CsvRecordParser(local);
+        RecordColumns columns = new RecordColumns(4096);
+        parser.parse(file, row -> {
+            columns.add(row);
+            return !Thread.currentThread().isInterrupted();
+        });
+        columns.invalidRows = parser.invalidRows();
+        columns.internNames(local, names);
+        return columns;
+    }
+
+    private static List<Path> matching(Path directory, String pattern) throws IOException {
+        if (!Files.isDirectory(directory)) return Collections.emptyList();
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        // Patterns with a separator (e.g. **/*.csv) may reach into subdirectories
+        int depth = pattern.contains("/") || pattern.contains("\\") || pattern.contains("**") ? Integer.MAX_VALUE : 1;
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.walk(directory, depth)) {
+            stream.filter(Files::isRegularFile)
+                    .filter(file -> matcher.matches(directory.relativize(file)))
+                    .sorted()
+                    .forEach(files::add);
+        }
+        return files;
+    }
+
+    private static int firstGlobChar(String spec) {
+        for (int i = 0; i < spec.length(); i++) {
+            if ("*?[{".indexOf(spec.charAt(i)) >= 0) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,119 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import javax.swing.*;
+import javax.swing.event.RowSorterListener;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+// Class statistics per score column, for every record and for the rows the current
+// search leaves visible. Refreshes itself while the table changes.
+public class StatisticsDialog extends JDialog {
+    private static final String[] SUMMARY_COLUMNS = {
+            "Column", "Records", "Mean", "Std Dev", "Min", "25th", "Median", "75th", "90th", "Max"
+    };
+
+    private final RecordsTableModel model;
+    private final RowSorter<RecordsTableModel> sorter;
+    private final ColumnStats stats;
+    private final DefaultTableModel allTable = readOnlyTable(SUMMARY_COLUMNS);
+    private final DefaultTableModel viewTable = readOnlyTable(SUMMARY_COLUMNS);
+    private final DefaultTableModel bandTable = readOnlyTable(bandColumns());
+    private final JTabbedPane tabs = new JTabbedPane();
+
+    public StatisticsDialog(JFrame owner, RecordsTableModel model, RowSorter<RecordsTableModel> sorter,
+                            ColumnStats stats) {
+        super(owner, "Statistics", false);
+        this.model = model;
+        this.sorter = sorter;
+        this.stats = stats;
+        setSize(900, 320);
+        setLocationRelativeTo(owner);
+
+        tabs.addTab("All records", new JScrollPane(new JTable(allTable)));
+        tabs.addTab("Current view", new JScrollPane(new JTable(viewTable)));
+        tabs.addTab("Score bands (current view)", new JScrollPane(new JTable(bandTable)));
+        add(tabs, BorderLayout.CENTER);
+
+        // Bursts of model events (e.g. a load) collapse into one refresh
+        Timer refreshLater = new Timer(250, e -> refresh());
+        refreshLater.setRepeats(false);
+        TableModelListener onChange = e -> refreshLater.restart();
+        model.addTableModelListener(onChange);
+        RowSorterListener onFilter = e -> refreshLater.restart();
+        sorter.addRowSorterListener(onFilter);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                model.removeTableModelListener(onChange);
+                sorter.removeRowSorterListener(onFilter);
+                refreshLater.stop();
+            }
+        });
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        refresh();
+    }
+
+    void refresh() {
+        allTable.setRowCount(0);
+        for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+            allTable.addRow(summaryRow(i, stats.summary(i)));
+        }
+
+        // The view is whatever the sorter shows, so it follows searches and score filters
+        int viewRows = sorter.getViewRowCount();
+        int[] slots = new int[viewRows];
+        for (int row = 0; row < viewRows; row++) {
+            slots[row] = model.slotAt(sorter.convertRowIndexToModel(row));
+        }
+        ColumnStats.Summary[] view = stats.summaries(slots, viewRows);
+        viewTable.setRowCount(0);
+        bandTable.setRowCount(0);
+        for (int i = 0; i < view.length; i++) {
+            viewTable.addRow(summaryRow(i, view[i]));
+            Object[] bands = new Object[11];
+            bands[0] = RecordsTableModel.COLUMN_NAMES[RecordsTableModel.FIRST_SCORE_COLUMN + i];
+            for (int band = 0; band < 10; band++) {
+                bands[band + 1] = view[i].countBetween(band * 10, band == 9 ? 100 : band * 10 + 9);
+            }
+            bandTable.addRow(bands);
+        }
+        tabs.setTitleAt(1, "Current view (" + viewRows + " rows)");
+    }
+
+    private static Object[] summaryRow(int scoreIndex, ColumnStats.Summary summary) {
+        boolean empty = summary.count == 0;
+        return new Object[]{
+                RecordsTableModel.COLUMN_NAMES[RecordsTableModel.FIRST_SCORE_COLUMN + scoreIndex],
+                summary.count,
+                empty ? "" : String.format("%.2f", summary.mean),
+                empty ? "" : String.format("%.2f", summary.standardDeviation),
+                empty ? "" : summary.min(),
+                empty ? "" : summary.percentile(25),
+                empty ? "" : summary.percentile(50),
+                empty ? "" : summary.percentile(75),
+                empty ? "" : summary.percentile(90),
+                empty ? "" : summary.max()
+        };
+    }
+
+    private static String[] bandColumns() {
+        String[] columns = new String[11];
+        columns[0] = "Column";
+        for (int band = 0; band < 10; band++) {
+            columns[band + 1] = band * 10 + "-" + (band == 9 ? 100 : band * 10 + 9);
+        }
+        return columns;
+    }
+
+    private static DefaultTableModel readOnlyTable(String[] columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+}
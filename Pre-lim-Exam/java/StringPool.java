@@ -0,0 +1,96 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Dictionary of names shared by every record: each distinct name is stored once as
+// UTF-8 bytes in a single arena and rows only keep its int code.
+public class StringPool {
+    private byte[] arena = new byte[4096];
+    private int arenaSize;
+    private int[] offsets = new int[257]; // offsets[code]..offsets[code + 1] is the entry
+    private int[] hashes = new int[256];
+    private String[] strings = new String[256]; // materialized lazily for the JTable
+    private int size;
+    private int[] table = new int[512]; // open addressing, holds code + 1 (0 = empty)
+
+    public synchronized int intern(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int code = intern(bytes, 0, bytes.length);
+        if (strings[code] == null) strings[code] = value;
+        return code;
+    }
+
+    public synchronized int intern(byte[] bytes, int off, int len) {
+        int hash = hash(bytes, off, len);
+        int mask = table.length - 1;
+        int i = hash & mask;
+        while (table[i] != 0) {
+            int code = table[i] - 1;
+            if (hashes[code] == hash && equalsEntry(code, bytes, off, len)) return code;
+            i = (i + 1) & mask;
+        }
+        int code = append(bytes, off, len, hash);
+        table[i] = code + 1;
+        if (size * 2 > table.length) rehash();
+        return code;
+    }
+
+    public synchronized String get(int code) {
+        String value = strings[code];
+        if (value == null) {
+            value = new String(arena, offsets[code], offsets[code + 1] - offsets[code], StandardCharsets.UTF_8);
+            strings[code] = value;
+        }
+        return value;
+    }
+
+    // UTF-8 bytes of an entry, without materializing the String
+    synchronized byte[] bytes(int code) {
+        return Arrays.copyOfRange(arena, offsets[code], offsets[code + 1]);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int append(byte[] bytes, int off, int len, int hash) {
+        if (arenaSize + len > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + len));
+        }
+        if (size == hashes.length) {
+            offsets = Arrays.copyOf(offsets, hashes.length * 2 + 1);
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            strings = Arrays.copyOf(strings, strings.length * 2);
+        }
+        System.arraycopy(bytes, off, arena, arenaSize, len);
+        arenaSize += len;
+        hashes[size] = hash;
+        offsets[size + 1] = arenaSize;
+        return size++;
+    }
+
+    private boolean equalsEntry(int code, byte[] bytes, int off, int len) {
+        int start = offsets[code];
+        return offsets[code + 1] - start == len
+                && Arrays.equals(arena, start, start + len, bytes, off, off + len);
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int code = 0; code < size; code++) {
+            int i = hashes[code] & mask;
+            while (table[i] != 0) i = (i + 1) & mask;
+            table[i] = code + 1;
+        }
+    }
+
+    private static int hash(byte[] bytes, int off, int len) {
+        int h = 0x811c9dc5;
+        for (int i = off; i < off + len; i++) {
+            h = (h ^ bytes[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
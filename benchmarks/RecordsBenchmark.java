@@ -0,0 +1,280 @@
+// Programmer Identifier: Hadap, Christian Jorge A - 22-1279-759
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+
+// Micro-benchmarks for the records viewer and the grade engine: CSV parsing,
+// snapshot loading, search, score queries, column sorting and batch grading, each
+// over generated datasets of several sizes. Every benchmark is warmed up before it
+// is measured, and reports the mean and best time per operation plus the bytes the
+// calling thread allocated per operation.
+//
+// Nothing outside the JDK is needed. From the repository root:
+//   javac -d build/bench -sourcepath "Pre-lim-Exam/java:lab activity 3/Java" benchmarks/RecordsBenchmark.java
+//   java -Xmx8g -cp build/bench RecordsBenchmark [--sizes 1000,100000,10000000] [--only load,search]
+//        [--warmup 5] [--iterations 10]
+// (use ; instead of : in -sourcepath on Windows). Generated CSVs are cached in the
+// temp directory as records-bench-<rows>.csv.
+public class RecordsBenchmark {
+    private static final String[] ALL = {"load", "snapshot", "search", "query", "sort", "grade"};
+
+    private static volatile long sink; // keeps results alive so the JIT cannot drop the work
+
+    private final int warmup;
+    private final int iterations;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    RecordsBenchmark(int warmup, int iterations) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {1_000, 100_000, 10_000_000};
+        Set<String> only = new LinkedHashSet<>(Arrays.asList(ALL));
+        int warmup = 5;
+        int iterations = 10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--only":
+                    only = new LinkedHashSet<>(Arrays.asList(args[++i].split(",")));
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+        RecordsBenchmark bench = new RecordsBenchmark(warmup, iterations);
+        System.out.printf("%-28s %12s %14s %14s %16s%n", "benchmark", "rows", "mean ns/op", "best ns/op", "alloc B/op");
+        for (int rows : sizes) {
+            bench.run(rows, only);
+        }
+    }
+
+    private void run(int rows, Set<String> only) throws Exception {
+        Path csv = dataset(rows);
+        // Large datasets get fewer measured runs so a full sweep stays in minutes
+        int scale = rows >= 1_000_000 ? 5 : 1;
+
+        if (only.contains("load")) {
+            measure("load csv", rows, scale, () -> {
+                RecordsTableModel model = new RecordsTableModel();
+                CsvRecordParser parser = new CsvRecordParser(model.names());
+                RecordColumns batch = new RecordColumns(rows + 1);
+                parser.parse(csv, row -> {
+                    batch.add(row);
+                    return true;
+                });
+                model.appendColumns(batch);
+                return model.getRowCount();
+            });
+        }
+
+        if (only.contains("snapshot")) {
+            Path snapshot = RecordSnapshot.pathFor(csv);
+            long size = Files.size(csv);
+            long modified = Files.getLastModifiedTime(csv).toMillis();
+            RecordsTableModel source = load(csv);
+            RecordColumns all = new RecordColumns(rows);
+            for (int row = 0; row < source.getRowCount(); row++) {
+                all.add(rowOf(source, source.slotAt(row)));
+            }
+            RecordSnapshot.write(snapshot, size, modified, all, source.names());
+            measure("load snapshot", rows, scale, () -> {
+                RecordsTableModel model = new RecordsTableModel();
+                RecordColumns columns = RecordSnapshot.read(snapshot, size, modified, model.names());
+                columns.dropDuplicateIds();
+                model.appendColumns(columns);
+                return model.getRowCount();
+            });
+        }
+
+        if (only.contains("search") || only.contains("query") || only.contains("sort")) {
+            RecordsTableModel model = load(csv);
+            if (only.contains("search")) {
+                SearchIndex index = new SearchIndex(model, Runnable::run);
+                model.addRecordsListener(index);
+                index.recordsAdded(0, model.slotCount() - 1);
+                measure("search name \"ann\"", rows, scale, () -> index.search("ann").cardinality());
+                measure("search id \"4821\"", rows, scale, () -> index.search("4821").cardinality());
+                measure("search id \"7\"", rows, scale, () -> index.search("7").cardinality());
+            }
+            if (only.contains("query")) {
+                ScoreIndex scores = new ScoreIndex(model);
+                scores.recordsAdded(0, model.slotCount() - 1);
+                RecordQuery selective = RecordQuery.parse("PRELIM EXAM < 5 and LAB WORK 1 >= 90");
+                RecordQuery broad = RecordQuery.parse("ATTENDANCE GRADE between 20 and 80");
+                measure("query selective", rows, scale, () -> scores.evaluate(selective).cardinality());
+                measure("query broad", rows, scale, () -> scores.evaluate(broad).cardinality());
+            }
+            if (only.contains("sort")) {
+                int[] columns = {RecordsTableModel.FIRST_SCORE_COLUMN + 3, RecordsTableModel.LAST_NAME_COLUMN,
+                        RecordsTableModel.ID_COLUMN};
+                for (int column : columns) {
+                    String name = RecordsTableModel.COLUMN_NAMES[column];
+                    measure("sort cold " + name, rows, scale, () -> {
+                        RecordsRowSorter sorter = new RecordsRowSorter(model);
+                        sorter.setSortKeys(List.of(new RowSorter.SortKey(column, SortOrder.ASCENDING)));
+                        return sorter.convertRowIndexToModel(0);
+                    });
+                    RecordsRowSorter warm = new RecordsRowSorter(model);
+                    boolean[] descending = new boolean[1];
+                    measure("sort warm " + name, rows, scale, () -> {
+                        descending[0] = !descending[0];
+                        warm.setSortKeys(List.of(new RowSorter.SortKey(column,
+                                descending[0] ? SortOrder.DESCENDING : SortOrder.ASCENDING)));
+                        return warm.convertRowIndexToModel(0);
+                    });
+                }
+                RecordsRowSorter multi = new RecordsRowSorter(model);
+                boolean[] flip = new boolean[1];
+                measure("sort 3 keys", rows, scale, () -> {
+                    flip[0] = !flip[0];
+                    multi.setSortKeys(List.of(
+                            new RowSorter.SortKey(RecordsTableModel.FIRST_SCORE_COLUMN + 4,
+                                    flip[0] ? SortOrder.DESCENDING : SortOrder.ASCENDING),
+                            new RowSorter.SortKey(RecordsTableModel.LAST_NAME_COLUMN, SortOrder.ASCENDING),
+                            new RowSorter.SortKey(RecordsTableModel.ID_COLUMN, SortOrder.ASCENDING)));
+                    return multi.convertRowIndexToModel(0);
+                });
+            }
+        }
+
+        if (only.contains("grade")) {
+            PrelimGradeEngine.Records records = PrelimGradeEngine.read(csv);
+            measure("grade read", rows, scale, () -> PrelimGradeEngine.read(csv).size());
+            measure("grade batch", rows, scale, () -> PrelimGradeEngine.grade(records).summary().students);
+            // The single-student formula the calculator GUI runs per click
+            measure("grade formula x" + rows, rows, scale, () -> {
+                double total = 0;
+                for (int i = 0; i < records.size(); i++) {
+                    double lab = PrelimGradeEngine.labAverage(records.lab1[i], records.lab2[i], records.lab3[i]);
+                    double cs = PrelimGradeEngine.classStanding(PrelimGradeEngine.attendanceScore(i & 3), lab);
+                    total += PrelimGradeEngine.requiredExamScore(PrelimGradeEngine.PASSING_GRADE, cs);
+                }
+                return (long) total;
+            });
+        }
+    }
+
+    private void measure(String name, int rows, int scale, Callable<?> operation) throws Exception {
+        int warm = Math.max(1, warmup / scale);
+        int runs = Math.max(1, iterations / scale);
+        for (int i = 0; i < warm; i++) {
+            consume(operation.call());
+        }
+        long threadId = Thread.currentThread().getId();
+        long total = 0;
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int i = 0; i < runs; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            Object result = operation.call();
+            long elapsed = System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            consume(result);
+            total += elapsed;
+            best = Math.min(best, elapsed);
+        }
+        System.out.printf("%-28s %12d %14d %14d %16d%n", name, rows, total / runs, best, allocated / runs);
+    }
+
+    private static void consume(Object result) {
+        sink += result == null ? 0 : result.hashCode();
+    }
+
+    private static RecordsTableModel load(Path csv) throws IOException {
+        RecordsTableModel model = new RecordsTableModel();
+        CsvRecordParser parser = new CsvRecordParser(model.names());
+        RecordColumns batch = new RecordColumns(4096);
+        parser.parse(csv, row -> {
+            batch.add(row);
+            return true;
+        });
+        model.appendColumns(batch);
+        return model;
+    }
+
+    private static CsvRecordParser.Row rowOf(RecordsTableModel model, int slot) {
+        CsvRecordParser.Row row = new CsvRecordParser.Row();
+        row.id = model.idAt(slot);
+        row.idWidth = model.idWidthAt(slot);
+        row.firstName = model.firstNameAt(slot);
+        row.lastName = model.lastNameAt(slot);
+        for (int i = 0; i < RecordsTableModel.SCORE_COUNT; i++) {
+            row.scores[i] = model.scoreAt(slot, i);
+        }
+        return row;
+    }
+
+    // MOCK_DATA.csv-shaped rows with unique 9-digit StudentIDs and a few thousand
+    // distinct names, so name lookups behave like a real class list
+    private static Path dataset(int rows) throws IOException {
+        Path csv = Paths.get(System.getProperty("java.io.tmpdir"), "records-bench-" + rows + ".csv");
+        if (Files.isRegularFile(csv)) return csv;
+        String[] first = syllableNames(2000, 11);
+        String[] last = syllableNames(3000, 12);
+        Random random = new Random(rows);
+        Path temp = csv.resolveSibling(csv.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            out.write(String.join(",", RecordsTableModel.COLUMN_NAMES));
+            out.write('\n');
+            long id = 100_000_000L;
+            StringBuilder line = new StringBuilder(64);
+            for (int i = 0; i < rows; i++) {
+                id += 1 + random.nextInt(50);
+                line.setLength(0);
+                line.append(id).append(',').append(first[random.nextInt(first.length)])
+                        .append(',').append(last[random.nextInt(last.length)]);
+                for (int s = 0; s < RecordsTableModel.SCORE_COUNT; s++) {
+                    line.append(',').append(random.nextInt(101));
+                }
+                out.append(line).append('\n');
+            }
+        }
+        Files.move(temp, csv);
+        return csv;
+    }
+
+    private static String[] syllableNames(int count, long seed) {
+        String[] syllables = {"an", "be", "ca", "dor", "el", "fi", "gan", "ha", "is", "jo", "ka", "li",
+                "mar", "ne", "o", "pa", "ri", "sa", "ta", "ul", "vi", "wen", "ya", "zel"};
+        Random random = new Random(seed);
+        List<String> names = new ArrayList<>();
+        Set<String> seen = new LinkedHashSet<>();
+        while (names.size() < count) {
+            StringBuilder name = new StringBuilder();
+            int parts = 2 + random.nextInt(2);
+            for (int p = 0; p < parts; p++) name.append(syllables[random.nextInt(syllables.length)]);
+            name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            if (seen.add(name.toString())) names.add(name.toString());
+        }
+        return names.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,399 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Append-only journal of attendance check-ins.
+//
+// Check-ins are kept in segment files attendance-<sequence>.log inside one directory.
+// Each segment starts with a 16 byte header (magic, version, sequence), followed by
+// records of the form
+//   [int length][long epoch millis][name][course][signature][int CRC32]
+// where the strings are [short length][UTF-8 bytes] and the CRC covers everything
+// between the length and itself. Timestamps never go backwards within the journal.
+//
+// One writer thread drains every waiting check-in, writes them with a single write
+// and forces them to disk once (group commit), so a rush of check-ins costs one
+// fsync per batch rather than one each. A check-in's future completes only after its
+// batch is on disk. A crash can only leave a torn record at the end of the newest
+// segment, which is cut off the next time the journal is opened.
+//
+// Only one process may have the journal open: open takes an exclusive lock on
+// journal.lock in the directory before it reads or repairs anything, and fails with
+// InUseException while another process holds it.
+public class AttendanceJournal implements AutoCloseable {
+    static final long SEGMENT_BYTES = 64L << 20;
+
+    private static final int MAGIC = 0x41544A4C; // "ATJL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAX_RECORD = 3 * 0xFFFF + 32;
+    private static final Pending CLOSE = new Pending(null, null);
+    // Journals open in this process. Checked before the lock file is touched, since
+    // closing any channel on that file can release this process's lock on it.
+    private static final Set<Path> OPEN = ConcurrentHashMap.newKeySet();
+
+    // Thrown by open when another process already has the journal open
+    public static final class InUseException extends IOException {
+        InUseException(Path directory) {
+            super("The attendance journal in " + directory + " is in use by another process");
+        }
+    }
+
+    // One recorded check-in
+    public static final class Entry {
+        public final long epochMillis;
+        public final String name;
+        public final String course;
+        public final String signature;
+
+        public Entry(long epochMillis, String name, String course, String signature) {
+            this.epochMillis = epochMillis;
+            this.name = name;
+            this.course = course;
+            this.signature = signature;
+        }
+    }
+
+    private static final class Pending {
+        final ByteBuffer record;
+        final CompletableFuture<Long> done;
+        final long epochMillis;
+
+        Pending(ByteBuffer record, CompletableFuture<Long> done) {
+            this(record, done, 0);
+        }
+
+        Pending(ByteBuffer record, CompletableFuture<Long> done, long epochMillis) {
+            this.record = record;
+            this.done = done;
+            this.epochMillis = epochMillis;
+        }
+    }
+
+    private final Path directory;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final Object clock = new Object();
+    private FileLock lock;
+    private Path lockKey;
+    private long lastMillis; // guarded by clock
+    private boolean closed;  // guarded by clock
+    private FileChannel segment;
+    private long sequence;
+    private volatile IOException failure;
+
+    private AttendanceJournal(Path directory) {
+        this.directory = directory;
+        this.writer = new Thread(this::writeLoop, "attendance-journal");
+        this.writer.setDaemon(true);
+    }
+
+    // Opens (or creates) the journal in the directory, repairing a torn tail
+    public static AttendanceJournal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        AttendanceJournal journal = new AttendanceJournal(directory);
+        journal.lock();
+        try {
+            journal.recover();
+        } catch (IOException | RuntimeException e) {
+            journal.unlock();
+            throw e;
+        }
+        journal.writer.start();
+        return journal;
+    }
+
+    private void lock() throws IOException {
+        lockKey = directory.toRealPath();
+        if (!OPEN.add(lockKey)) throw new InUseException(directory);
+        try {
+            FileChannel channel = FileChannel.open(directory.resolve("journal.lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                lock = channel.tryLock();
+            } finally {
+                if (lock == null) channel.close();
+            }
+        } finally {
+            if (lock == null) OPEN.remove(lockKey);
+        }
+        if (lock == null) throw new InUseException(directory);
+    }
+
+    // Closing the channel releases the lock
+    private void unlock() {
+        try {
+            if (segment != null) segment.close();
+            lock.channel().close();
+        } catch (IOException e) {
+            // nothing is left to protect once the process lets go of the journal
+        }
+        OPEN.remove(lockKey);
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    // Queues a check-in stamped with the current time; the future completes with that
+    // time once the check-in is on disk
+    public CompletableFuture<Long> append(String name, String course, String signature) {
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] courseBytes = course.getBytes(StandardCharsets.UTF_8);
+        byte[] signatureBytes = signature.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 0xFFFF || courseBytes.length > 0xFFFF || signatureBytes.length > 0xFFFF) {
+            done.completeExceptionally(new IllegalArgumentException("Check-in fields are too long"));
+            return done;
+        }
+        IOException failed = failure;
+        if (failed != null) {
+            done.completeExceptionally(failed);
+            return done;
+        }
+        int length = 8 + 6 + nameBytes.length + courseBytes.length + signatureBytes.length;
+        ByteBuffer record = ByteBuffer.allocate(4 + length + 4);
+        record.putInt(length).putLong(0);
+        putString(record, nameBytes);
+        putString(record, courseBytes);
+        putString(record, signatureBytes);
+        // The time is taken together with the queue position, so file order is time order
+        synchronized (clock) {
+            if (closed) {
+                done.completeExceptionally(new IOException("Attendance journal is closed"));
+                return done;
+            }
+            long millis = Math.max(System.currentTimeMillis(), lastMillis);
+            lastMillis = millis;
+            record.putLong(4, millis);
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), 4, length);
+            record.putInt((int) crc.getValue()).flip();
+            queue.add(new Pending(record, done, millis));
+        }
+        return done;
+    }
+
+    // Reads every check-in in the journal directory in time order. Stops at the first
+    // damaged record of a segment, exactly as recovery would cut it.
+    public static void replay(Path directory, Consumer<Entry> consumer) throws IOException {
+        if (!Files.isDirectory(directory)) return;
+        for (Path file : segments(directory).values()) {
+            readSegment(file, consumer);
+        }
+    }
+
+    // Replays this journal's directory; check-ins still queued are not included
+    public void replay(Consumer<Entry> consumer) throws IOException {
+        replay(directory, consumer);
+    }
+
+    public IOException failure() {
+        return failure;
+    }
+
+    // Writes out everything queued so far, then stops the writer
+    @Override
+    public void close() {
+        synchronized (clock) {
+            if (closed) return;
+            closed = true;
+            queue.add(CLOSE);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return; // the writer still owns the segment
+        }
+        unlock();
+    }
+
+    private void recover() throws IOException {
+        TreeMap<Long, Path> segments = segments(directory);
+        if (segments.isEmpty()) {
+            openSegment(1);
+            return;
+        }
+        long[] last = {0};
+        for (Path file : segments.values()) {
+            long valid = readSegment(file, entry -> last[0] = entry.epochMillis);
+            if (file.equals(segments.lastEntry().getValue())) {
+                sequence = segments.lastKey();
+                segment = FileChannel.open(file, StandardOpenOption.WRITE);
+                segment.truncate(Math.max(valid, HEADER_SIZE)); // drop a torn tail left by a crash
+                segment.position(segment.size());
+                if (valid < HEADER_SIZE) writeHeader();
+            }
+        }
+        lastMillis = last[0];
+    }
+
+    // Returns the length of the valid prefix of the segment
+    private static long readSegment(Path file, Consumer<Entry> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) return 0;
+
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+            long valid = HEADER_SIZE;
+            long position = HEADER_SIZE;
+            buffer.limit(0);
+            CRC32 crc = new CRC32();
+            while (true) {
+                if (buffer.remaining() < 4 || buffer.remaining() < 8 + buffer.getInt(buffer.position())) {
+                    buffer.compact();
+                    int read = channel.read(buffer, position);
+                    buffer.flip();
+                    if (read <= 0) {
+                        if (buffer.remaining() < 4 || buffer.remaining() < 8 + buffer.getInt(buffer.position())) {
+                            return valid;
+                        }
+                    } else {
+                        position += read;
+                        continue;
+                    }
+                }
+                int start = buffer.position();
+                int length = buffer.getInt();
+                if (length < 14 || length > MAX_RECORD) return valid;
+                crc.reset();
+                crc.update(buffer.array(), start + 4, length);
+                if ((int) crc.getValue() != buffer.getInt(start + 4 + length)) return valid;
+                long millis = buffer.getLong();
+                String name = getString(buffer);
+                String course = getString(buffer);
+                String signature = getString(buffer);
+                if (buffer.position() != start + 4 + length) return valid;
+                buffer.position(start + 4 + length + 4);
+                valid += 4 + length + 4;
+                consumer.accept(new Entry(millis, name, course, signature));
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        ByteBuffer out = ByteBuffer.allocate(1 << 20);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue; // only the close marker stops the writer
+            }
+            queue.drainTo(batch);
+            try {
+                if (failure == null) {
+                    for (Pending pending : batch) {
+                        if (pending == CLOSE) continue;
+                        if (out.remaining() < pending.record.remaining()) flush(out);
+                        if (out.remaining() < pending.record.remaining()) {
+                            write(pending.record); // larger than the batch buffer
+                        } else {
+                            out.put(pending.record);
+                        }
+                    }
+                    flush(out);
+                    segment.force(false);
+                    if (segment.size() >= SEGMENT_BYTES) rotate();
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+            for (Pending pending : batch) {
+                if (pending == CLOSE) {
+                    running = false;
+                } else if (failure != null) {
+                    pending.done.completeExceptionally(failure);
+                } else {
+                    pending.done.complete(pending.epochMillis);
+                }
+            }
+            batch.clear();
+        }
+        try {
+            segment.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void rotate() throws IOException {
+        segment.close();
+        openSegment(sequence + 1);
+    }
+
+    private void openSegment(long newSequence) throws IOException {
+        sequence = newSequence;
+        segment = FileChannel.open(segmentPath(directory, newSequence), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        writeHeader();
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(sequence).flip();
+        segment.position(0);
+        write(header);
+        segment.force(true);
+    }
+
+    private void flush(ByteBuffer out) throws IOException {
+        out.flip();
+        write(out);
+        out.clear();
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) segment.write(buffer);
+    }
+
+    private static TreeMap<Long, Path> segments(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "attendance-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring("attendance-".length(), name.length() - 4)), file);
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static Path segmentPath(Path directory, long sequence) {
+        return directory.resolve(String.format("attendance-%08d.log", sequence));
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Arrival counts per course, kept as minute, hour and day rollups in local time, so
+// questions like "arrivals per 5 minutes this morning" or "late arrivals this week"
+// are answered from at most 24 + 2 * 60 counters per day instead of the check-ins.
+// Query times are taken to the minute.
+public class AttendanceRollups {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // One course's arrivals on one day
+    private static final class Day {
+        final int[] minutes = new int[MINUTES_PER_DAY];
+        final int[] hours = new int[24];
+        int total;
+
+        // Arrivals in [fromMinute, toMinute) of the day
+        int count(int fromMinute, int toMinute) {
+            if (fromMinute <= 0 && toMinute >= MINUTES_PER_DAY) return total;
+            int count = 0;
+            int minute = Math.max(0, fromMinute);
+            int end = Math.min(MINUTES_PER_DAY, toMinute);
+            while (minute < end && minute % 60 != 0) count += minutes[minute++];
+            while (minute + 60 <= end) {
+                count += hours[minute / 60];
+                minute += 60;
+            }
+            while (minute < end) count += minutes[minute++];
+            return count;
+        }
+    }
+
+    private final ZoneId zone;
+    private final Map<String, TreeMap<Long, Day>> courses = new HashMap<>(); // course -> epoch day -> counts
+
+    public AttendanceRollups() {
+        this(ZoneId.systemDefault());
+    }
+
+    AttendanceRollups(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    // Rollups of every check-in in the journal
+    public static AttendanceRollups fromJournal(AttendanceJournal journal) throws IOException {
+        AttendanceRollups rollups = new AttendanceRollups();
+        journal.replay(entry -> rollups.record(entry.course, entry.epochMillis));
+        return rollups;
+    }
+
+    public synchronized void record(String course, long epochMillis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+        Day day = courses.computeIfAbsent(course, k -> new TreeMap<>())
+                .computeIfAbsent(time.toLocalDate().toEpochDay(), k -> new Day());
+        day.minutes[minuteOf(time.toLocalTime())]++;
+        day.hours[time.getHour()]++;
+        day.total++;
+    }
+
+    // Arrivals in [from, to) for the course, or for every course when it is null
+    public synchronized int count(String course, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) return 0;
+        int count = 0;
+        for (TreeMap<Long, Day> days : daysOf(course)) {
+            long firstDay = from.toLocalDate().toEpochDay();
+            long lastDay = to.toLocalDate().toEpochDay();
+            int fromMinute = minuteOf(from.toLocalTime());
+            int toMinute = minuteOf(to.toLocalTime());
+            for (Map.Entry<Long, Day> entry : days.subMap(firstDay, true, lastDay, true).entrySet()) {
+                long epochDay = entry.getKey();
+                count += entry.getValue().count(epochDay == firstDay ? fromMinute : 0,
+                        epochDay == lastDay ? toMinute : MINUTES_PER_DAY);
+            }
+        }
+        return count;
+    }
+
+    // Arrivals per bucket of bucketMinutes, from from until to (the last bucket may be
+    // cut short), e.g. five minute windows of one morning
+    public synchronized int[] series(String course, LocalDateTime from, LocalDateTime to, int bucketMinutes) {
+        if (bucketMinutes <= 0) throw new IllegalArgumentException("Bucket must be at least a minute");
+        long minutes = Math.max(0, Duration.between(from, to).toMinutes());
+        int[] counts = new int[(int) ((minutes + bucketMinutes - 1) / bucketMinutes)];
+        for (int i = 0; i < counts.length; i++) {
+            LocalDateTime start = from.plusMinutes((long) i * bucketMinutes);
+            LocalDateTime end = start.plusMinutes(bucketMinutes);
+            counts[i] = count(course, start, end.isAfter(to) ? to : end);
+        }
+        return counts;
+    }
+
+    // Arrivals at or after the cutoff time of day, on the days first to last inclusive
+    public synchronized int lateArrivals(String course, LocalDate first, LocalDate last, LocalTime cutoff) {
+        if (first.isAfter(last)) return 0;
+        int count = 0;
+        int cutoffMinute = minuteOf(cutoff);
+        for (TreeMap<Long, Day> days : daysOf(course)) {
+            for (Day day : days.subMap(first.toEpochDay(), true, last.toEpochDay(), true).values()) {
+                count += day.count(cutoffMinute, MINUTES_PER_DAY);
+            }
+        }
+        return count;
+    }
+
+    private List<TreeMap<Long, Day>> daysOf(String course) {
+        if (course == null) return new ArrayList<>(courses.values());
+        TreeMap<Long, Day> days = courses.get(course);
+        return days == null ? List.of() : List.of(days);
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -1,15 +1,85 @@
 import javax.swing.*;
 import java.awt.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.UUID;
+import java.io.IOException;
+import java.net.BindException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 
 // Attendance Tracker - A simple application to track attendance
 public class AttendanceTracker {
+    // Formatters are immutable and thread-safe, so one instance serves every call
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final Path JOURNAL_DIRECTORY = Paths.get("attendance-journal");
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private static URI checkInUri;
 
     public static void main(String[] args) {
+        // The form is a client of the check-in server: the one named by -Dattendance.server,
+        // or one started here (which kiosks on this machine can use too)
+        String server = System.getProperty("attendance.server");
+        String serverError = null;
+        if (server != null && !server.isEmpty()) {
+            checkInUri = URI.create(server.replaceAll("/+$", "") + "/checkin");
+        } else {
+            try {
+                checkInUri = startServer();
+            } catch (IOException e) {
+                serverError = e.getMessage();
+            }
+        }
+        String error = serverError;
+
         // Create the GUI on the Event Dispatch Thread
-        SwingUtilities.invokeLater(() -> createWindow());
+        SwingUtilities.invokeLater(() -> {
+            createWindow();
+            if (error != null) {
+                JOptionPane.showMessageDialog(null, "Unable to start the check-in server: " + error
+                        + "\nCheck-ins cannot be saved.", "Server Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    // Opens the journal and serves it on the default port. If another tracker already
+    // has the journal open or serves that port, this one becomes its client instead,
+    // without reading or repairing the journal.
+    private static URI startServer() throws IOException {
+        URI uri = URI.create("http://localhost:" + CheckInServer.DEFAULT_PORT + "/checkin");
+        AttendanceJournal journal;
+        try {
+            journal = AttendanceJournal.open(JOURNAL_DIRECTORY);
+        } catch (AttendanceJournal.InUseException e) {
+            return uri;
+        }
+        CheckInServer server;
+        try {
+            server = new CheckInServer(journal, CheckInServer.DEFAULT_PORT);
+        } catch (BindException e) {
+            journal.close();
+            return uri;
+        } catch (IOException e) {
+            journal.close();
+            throw e;
+        }
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            journal.close();
+        }));
+        return uri;
     }
 
     private static void createWindow() {
@@ -26,13 +96,12 @@ public class AttendanceTracker {
         JTextField signatureField = new JTextField();
 
         // Create course dropdown
-        String[] courses = {"Select Course", "BSCS 1st Year", "BSCS 2nd Year", "BSCS 3rd Year", "BSCS 4th Year", 
-                           "IT 1st Year", "IT 2nd Year", "IT 3rd Year", "IT 4th Year",};
-        JComboBox<String> courseCombo = new JComboBox<>(courses);
+        JComboBox<String> courseCombo = new JComboBox<>();
+        courseCombo.addItem("Select Course");
+        CheckInValidator.COURSES.forEach(courseCombo::addItem);
 
-        // Auto-populate time and signature
+        // Auto-populate time; the server issues the signature on check-in
         timeField.setText(getCurrentDateTime());
-        signatureField.setText(generateSignature());
 
         // Make certain fields read-only
         timeField.setEditable(false);
@@ -60,45 +129,62 @@ public class AttendanceTracker {
             String name = nameField.getText().trim();
             String course = (String) courseCombo.getSelectedItem();
             
-            // Get current system time (latest time) to prevent cheating
-            String time = getCurrentDateTime();
-
-            // Validate name field
-            if (name.isEmpty()) {
-                JOptionPane.showMessageDialog(frame, "Attendance Name is required!", "Validation Error", JOptionPane.ERROR_MESSAGE);
-                nameField.requestFocus();
-                return;
-            }
-
-            if (name.length() < 2) {
-                JOptionPane.showMessageDialog(frame, "Attendance Name must be at least 2 characters!", "Validation Error", JOptionPane.ERROR_MESSAGE);
-                nameField.requestFocus();
-                return;
-            }
-
-            if (!name.matches("[a-zA-Z\\s]+")) {
-                JOptionPane.showMessageDialog(frame, "Attendance Name can only contain letters and spaces!", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            // Same rules the server applies to kiosks
+            String nameError = CheckInValidator.nameError(name);
+            if (nameError != null) {
+                JOptionPane.showMessageDialog(frame, nameError, "Validation Error", JOptionPane.ERROR_MESSAGE);
                 nameField.requestFocus();
                 return;
             }
 
             // Validate course field
-            if (course.equals("Select Course")) {
-                JOptionPane.showMessageDialog(frame, "Please select a course!", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            String courseError = CheckInValidator.courseError(course);
+            if (courseError != null) {
+                JOptionPane.showMessageDialog(frame, courseError, "Validation Error", JOptionPane.ERROR_MESSAGE);
                 courseCombo.requestFocus();
                 return;
             }
 
-            // Update time field with current system time
-            timeField.setText(time);
+            if (checkInUri == null) {
+                JOptionPane.showMessageDialog(frame, "Check-in server is not available.", "Server Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
 
-            // All validations passed - show success message
-            JOptionPane.showMessageDialog(frame, 
-                "Attendance Recorded!\n\nName: " + name + 
-                "\nCourse: " + course +
-                "\nTime: " + time +
-                "\nSignature: " + signatureField.getText(),
-                "Success", JOptionPane.INFORMATION_MESSAGE);
+            // The server stamps the current system time (latest time) to prevent cheating,
+            // and answers once the check-in is safely on disk
+            submitButton.setEnabled(false);
+            HttpRequest request = HttpRequest.newBuilder(checkInUri)
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("name=" + encode(name) + "&course=" + encode(course)))
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> SwingUtilities.invokeLater(() -> {
+                submitButton.setEnabled(true);
+                if (error != null) {
+                    JOptionPane.showMessageDialog(frame, "Attendance could not be sent: " + error.getMessage(), "Server Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                if (response.statusCode() != 201) {
+                    String message = jsonString(response.body(), "error");
+                    JOptionPane.showMessageDialog(frame, message != null ? message : "Server answered " + response.statusCode(),
+                            errorTitle(response.statusCode()), JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                String time = jsonString(response.body(), "time");
+                String signature = jsonString(response.body(), "signature");
+
+                // Update time and signature fields with the recorded values
+                timeField.setText(time);
+                signatureField.setText(signature);
+
+                // All validations passed - show success message
+                JOptionPane.showMessageDialog(frame, 
+                    "Attendance Recorded!\n\nName: " + name + 
+                    "\nCourse: " + course +
+                    "\nTime: " + time +
+                    "\nSignature: " + signature,
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+            }));
         });
 
         // Clear button action
@@ -106,7 +192,7 @@ public class AttendanceTracker {
             nameField.setText("");
             courseCombo.setSelectedIndex(0);
             timeField.setText(getCurrentDateTime());
-            signatureField.setText(generateSignature());
+            signatureField.setText("");
         });
 
         // Display the window
@@ -115,11 +201,46 @@ public class AttendanceTracker {
 
     // Get current system date and time
     private static String getCurrentDateTime() {
-        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
+        return formatTime(System.currentTimeMillis());
+    }
+
+    static String formatTime(long epochMillis) {
+        return TIME_FORMAT.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    private static String errorTitle(int status) {
+        switch (status) {
+            case 400: return "Validation Error";
+            case 409: return "Already Checked In";
+            default: return "Server Error";
+        }
     }
 
-    // Generate a unique signature
-    private static String generateSignature() {
-        return UUID.randomUUID().toString().substring(0, 12).toUpperCase();
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Value of a string field in the server's flat JSON answers, or null if absent
+    static String jsonString(String json, String key) {
+        String marker = "\"" + key + "\":\"";
+        int start = json.indexOf(marker);
+        if (start < 0) return null;
+        StringBuilder value = new StringBuilder();
+        for (int i = start + marker.length(); i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') return value.toString();
+            if (c == '\\' && i + 1 < json.length()) {
+                char escaped = json.charAt(++i);
+                if (escaped == 'u' && i + 4 < json.length()) {
+                    value.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+                    i += 4;
+                } else {
+                    value.append(escaped == 'n' ? '\n' : escaped == 't' ? '\t' : escaped);
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        return null;
     }
 }
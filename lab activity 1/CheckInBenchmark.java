@@ -0,0 +1,57 @@
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.function.IntUnaryOperator;
+
+// Single-thread throughput of the check-in hot path (validate the name and course,
+// generate a signature), against the regex and UUID version it replaced.
+//
+// Usage: java CheckInBenchmark [seconds per measurement]
+public class CheckInBenchmark {
+    private static final String[] NAMES = {"Juan Dela Cruz", "Maria Clara", "Ana", "Jose Rizal Mercado",
+            "Andres Bonifacio", "Gabriela Silang", "Emilio Aguinaldo", "Apolinario Mabini"};
+
+    private static final SignatureGenerator SIGNATURES = new SignatureGenerator(new SecureRandom().nextLong());
+
+    private static int sink;
+
+    public static void main(String[] args) {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 1;
+        String[] courses = CheckInValidator.COURSES.toArray(new String[0]);
+
+        IntUnaryOperator current = i -> {
+            String error = CheckInValidator.error(NAMES[i & 7], courses[i & 7]);
+            return (error == null ? 0 : 1) + SIGNATURES.next().charAt(0);
+        };
+        IntUnaryOperator previous = i -> {
+            String name = NAMES[i & 7];
+            boolean valid = name.length() >= 2 && name.matches("[a-zA-Z\\s]+")
+                    && CheckInValidator.courseError(courses[i & 7]) == null;
+            return (valid ? 0 : 1) + UUID.randomUUID().toString().substring(0, 12).toUpperCase().charAt(0);
+        };
+
+        for (int round = 0; round < 3; round++) { // the first rounds warm up the JIT
+            boolean report = round == 2;
+            measure("validate + signature", current, seconds, report);
+            measure("regex + UUID (before)", previous, seconds, report);
+            measure("validate only", i -> CheckInValidator.error(NAMES[i & 7], courses[i & 7]) == null ? 0 : 1,
+                    seconds, report);
+            measure("signature only", i -> SIGNATURES.next().charAt(0), seconds, report);
+        }
+        if (sink == 42) System.out.println(); // keeps the results observable to the JIT
+    }
+
+    private static void measure(String label, IntUnaryOperator operation, double seconds, boolean report) {
+        long deadline = System.nanoTime() + (long) (seconds * 1e9);
+        long operations = 0;
+        long start = System.nanoTime();
+        long now;
+        do {
+            for (int i = 0; i < 10_000; i++) sink += operation.applyAsInt(i);
+            operations += 10_000;
+        } while ((now = System.nanoTime()) < deadline);
+        if (report) {
+            double perSecond = operations / ((now - start) / 1e9);
+            System.out.printf("%-24s %,14.0f /s  %8.1f ns each%n", label, perSecond, 1e9 / perSecond);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+// Rejects a second check-in by the same student for the same course on the same day.
+//
+// Keys are the normalized name (trimmed, inner spaces collapsed, lower case) and the
+// course. A Bloom filter answers the common case, a first check-in, from 256 KB of bits;
+// only when it says "maybe" is the exact set consulted. That set keeps the key bytes and
+// an open-addressing table in direct (off-heap) buffers. Both start over at midnight,
+// so memory is bounded by one day's check-ins however long the semester runs.
+public class CheckInDeduplicator {
+    private static final int BLOOM_BITS = 1 << 21; // ~1% false positives at 200k check-ins a day
+    private static final int BLOOM_HASHES = 7;
+    private static final int INITIAL_SLOTS = 1 << 14;
+    private static final int INITIAL_KEY_BYTES = 1 << 20;
+
+    private final ZoneId zone;
+    private final long[] bloom = new long[BLOOM_BITS / 64];
+    private final KeySet exact = new KeySet();
+    private long day = Long.MIN_VALUE;
+    private long dayStart = Long.MAX_VALUE; // [dayStart, dayEnd) in epoch millis
+    private long dayEnd = Long.MIN_VALUE;
+    private long bloomHits; // check-ins that needed the exact set today
+
+    public CheckInDeduplicator() {
+        this(ZoneId.systemDefault());
+    }
+
+    CheckInDeduplicator(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    // Deduplicator holding today's check-ins from the journal
+    public static CheckInDeduplicator fromJournal(AttendanceJournal journal) throws IOException {
+        CheckInDeduplicator deduplicator = new CheckInDeduplicator();
+        long today = deduplicator.dayOf(System.currentTimeMillis());
+        journal.replay(entry -> {
+            if (deduplicator.dayOf(entry.epochMillis) == today) {
+                deduplicator.tryRecord(entry.name, entry.course, entry.epochMillis);
+            }
+        });
+        return deduplicator;
+    }
+
+    // Records the check-in and returns true, or returns false if the student already
+    // checked in for the course on that day
+    public boolean tryRecord(String name, String course, long epochMillis) {
+        byte[] key = key(name, course);
+        long hash = hash(key);
+        synchronized (this) {
+            if (epochMillis < dayStart || epochMillis >= dayEnd) {
+                long checkInDay = dayOf(epochMillis);
+                if (checkInDay < day) return true; // yesterday's, already behind us
+                startDay(checkInDay);
+            }
+            if (mightContain(hash)) {
+                bloomHits++;
+                if (!exact.add(key, hash)) return false;
+            } else {
+                exact.add(key, hash); // certainly new; no key comparison will match
+            }
+            addToBloom(hash);
+            return true;
+        }
+    }
+
+    // Takes back a check-in that could not be stored, so the student can try again
+    public void forget(String name, String course, long epochMillis) {
+        byte[] key = key(name, course);
+        long hash = hash(key);
+        synchronized (this) {
+            if (epochMillis >= dayStart && epochMillis < dayEnd) exact.remove(key, hash);
+        }
+    }
+
+    synchronized int size() {
+        return exact.size;
+    }
+
+    synchronized long bloomHits() {
+        return bloomHits;
+    }
+
+    long dayOf(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    private void startDay(long newDay) {
+        day = newDay;
+        LocalDate date = LocalDate.ofEpochDay(newDay);
+        dayStart = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        dayEnd = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        Arrays.fill(bloom, 0);
+        exact.clear();
+        bloomHits = 0;
+    }
+
+    private boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & (BLOOM_BITS - 1);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private void addToBloom(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & (BLOOM_BITS - 1);
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) normalized.append(' ');
+                space = false;
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static byte[] key(String name, String course) {
+        return (normalize(name) + '\n' + course).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // FNV-1a over the bytes, finished with a 64 bit mix so every bit depends on every byte
+    private static long hash(byte[] key) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : key) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    // Exact set of keys stored off-heap. Slots are longs (key offset + 1 in the low
+    // half, upper hash bits in the high half, 0 for empty) probed linearly; key bytes
+    // are appended to an arena as [short length][bytes].
+    private static final class KeySet {
+        private ByteBuffer slots;
+        private ByteBuffer keys;
+        private int mask;
+        private int size;
+
+        KeySet() {
+            clear();
+        }
+
+        void clear() {
+            slots = ByteBuffer.allocateDirect(INITIAL_SLOTS * 8);
+            keys = ByteBuffer.allocateDirect(INITIAL_KEY_BYTES);
+            mask = INITIAL_SLOTS - 1;
+            size = 0;
+        }
+
+        // Returns false if the key was already present
+        boolean add(byte[] key, long hash) {
+            int slot = find(key, hash);
+            if (slots.getLong(slot * 8) != 0) return false;
+            if (keys.remaining() < key.length + 2) growKeys(key.length + 2);
+            int offset = keys.position();
+            keys.putShort((short) key.length).put(key);
+            slots.putLong(slot * 8, (hash & 0xFFFFFFFF00000000L) | (offset + 1L));
+            if (++size > (mask + 1) * 3 / 4) growSlots();
+            return true;
+        }
+
+        void remove(byte[] key, long hash) {
+            int slot = find(key, hash);
+            if (slots.getLong(slot * 8) == 0) return;
+            // Backward-shift deletion keeps every remaining key reachable without tombstones
+            int hole = slot;
+            for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+                long entry = slots.getLong(next * 8);
+                if (entry == 0) break;
+                int home = home(entry >>> 32);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    slots.putLong(hole * 8, entry);
+                    hole = next;
+                }
+            }
+            slots.putLong(hole * 8, 0);
+            size--; // the key bytes stay in the arena until the day ends
+        }
+
+        // Slot holding the key, or the empty slot where it belongs
+        private int find(byte[] key, long hash) {
+            long high = hash & 0xFFFFFFFF00000000L;
+            for (int slot = home(hash >>> 32); ; slot = (slot + 1) & mask) {
+                long entry = slots.getLong(slot * 8);
+                if (entry == 0) return slot;
+                if ((entry & 0xFFFFFFFF00000000L) == high && keyEquals((int) entry - 1, key)) return slot;
+            }
+        }
+
+        private int home(long highHash) {
+            return (int) (highHash * 0x9E3779B9L >>> 16) & mask;
+        }
+
+        private boolean keyEquals(int offset, byte[] key) {
+            if ((keys.getShort(offset) & 0xFFFF) != key.length) return false;
+            for (int i = 0; i < key.length; i++) {
+                if (keys.get(offset + 2 + i) != key[i]) return false;
+            }
+            return true;
+        }
+
+        private void growKeys(int needed) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(keys.capacity() * 2, keys.position() + needed));
+            keys.flip();
+            larger.put(keys);
+            keys = larger;
+        }
+
+        private void growSlots() {
+            ByteBuffer old = slots;
+            int oldSlots = mask + 1;
+            slots = ByteBuffer.allocateDirect(oldSlots * 2 * 8);
+            mask = oldSlots * 2 - 1;
+            for (int i = 0; i < oldSlots; i++) {
+                long entry = old.getLong(i * 8);
+                if (entry == 0) continue;
+                int slot = home(entry >>> 32);
+                while (slots.getLong(slot * 8) != 0) slot = (slot + 1) & mask;
+                slots.putLong(slot * 8, entry);
+            }
+        }
+    }
+}
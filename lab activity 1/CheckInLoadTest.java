@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+
+// Localhost load test for the check-in server: fires many check-ins, each from its own
+// connection like separate kiosks, and reports latency percentiles and throughput.
+//
+// Usage: java CheckInLoadTest [requests] [per second] [port]
+// With a rate of 0 (the default) every request is started at once; otherwise requests
+// arrive at that steady rate, like kiosks used through a class change. Without a port a
+// server is started on a free one with a throwaway journal.
+//
+// The kiosks are simulated by one selector thread, so the client takes little of the
+// CPU the server is being measured on.
+public class CheckInLoadTest {
+    private static final class Kiosk {
+        final int index;
+        final ByteBuffer request;
+        final ByteBuffer response = ByteBuffer.allocate(1024);
+        long started;
+
+        Kiosk(int index, ByteBuffer request) {
+            this.index = index;
+            this.request = request;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rate = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        AttendanceJournal journal = null;
+        CheckInServer server = null;
+        Path directory = null;
+        int port;
+        if (args.length > 2) {
+            port = Integer.parseInt(args[2]);
+        } else {
+            directory = Files.createTempDirectory("attendance-load");
+            journal = AttendanceJournal.open(directory);
+            server = new CheckInServer(journal, 0);
+            server.start();
+            port = server.port();
+        }
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", port);
+
+        run(address, "Warmup", 200, 0); // warm up the server before measuring
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        int failures = run(address, "Student", requests, rate, latencies);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%d check-ins in %.2f s (%.0f/s), %d failed%n", requests, elapsed / 1e9,
+                requests / (elapsed / 1e9), failures);
+        System.out.printf("latency ms  p50 %.2f  p90 %.2f  p99 %.2f  max %.2f%n", percentile(latencies, 50),
+                percentile(latencies, 90), percentile(latencies, 99), latencies[requests - 1] / 1e6);
+
+        if (server != null) {
+            server.stop();
+            journal.close();
+            int[] stored = {0};
+            AttendanceJournal.replay(directory, entry -> stored[0]++);
+            System.out.println(stored[0] + " check-ins in the journal");
+            deleteAll(directory);
+        }
+    }
+
+    private static int run(InetSocketAddress address, String surname, int requests, int rate) throws IOException {
+        return run(address, surname, requests, rate, new long[requests]);
+    }
+
+    // Returns the number of requests that did not get a 201. Every kiosk checks in a
+    // different student, so the server's duplicate check lets them all through.
+    private static int run(InetSocketAddress address, String surname, int requests, int rate, long[] latencies)
+            throws IOException {
+        String[] courses = CheckInValidator.COURSES.toArray(new String[0]);
+        int failures = 0;
+        int started = 0;
+        int finished = 0;
+        long start = System.nanoTime();
+        try (Selector selector = Selector.open()) {
+            while (finished < requests) {
+                // Start every kiosk that is due
+                long now = System.nanoTime();
+                while (started < requests && (rate == 0 || start + started * 1_000_000_000L / rate <= now)) {
+                    Kiosk kiosk = new Kiosk(started, request(address, "name=" + surname + "+" + letters(started)
+                            + "&course=" + courses[started % courses.length].replace(' ', '+')));
+                    SocketChannel channel = SocketChannel.open();
+                    channel.configureBlocking(false);
+                    kiosk.started = System.nanoTime();
+                    channel.register(selector, channel.connect(address) ? SelectionKey.OP_WRITE : SelectionKey.OP_CONNECT, kiosk);
+                    started++;
+                }
+                long timeout = 0;
+                if (started < requests) {
+                    timeout = Math.max(1, (start + started * 1_000_000_000L / rate - System.nanoTime()) / 1_000_000);
+                }
+                selector.select(timeout);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Kiosk kiosk = (Kiosk) key.attachment();
+                    SocketChannel channel = (SocketChannel) key.channel();
+                    int status;
+                    try {
+                        status = step(key, channel, kiosk);
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    if (status == 0) continue;
+                    latencies[kiosk.index] = System.nanoTime() - kiosk.started;
+                    if (status != 201) failures++;
+                    finished++;
+                    key.cancel();
+                    channel.close();
+                }
+            }
+        }
+        return failures;
+    }
+
+    // Advances one connection; returns the response status once it is complete, else 0
+    private static int step(SelectionKey key, SocketChannel channel, Kiosk kiosk) throws IOException {
+        if (key.isConnectable()) {
+            channel.finishConnect();
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+        if (key.isValid() && key.isWritable()) {
+            channel.write(kiosk.request);
+            if (!kiosk.request.hasRemaining()) key.interestOps(SelectionKey.OP_READ);
+        }
+        if (key.isValid() && key.isReadable()) {
+            // The request asked the server to close, so end of stream ends the response
+            if (channel.read(kiosk.response) < 0) return statusOf(kiosk.response);
+        }
+        return 0;
+    }
+
+    private static int statusOf(ByteBuffer response) throws IOException {
+        String text = new String(response.array(), 0, response.position(), StandardCharsets.ISO_8859_1);
+        if (!text.startsWith("HTTP/1.1 ")) throw new IOException("No HTTP response");
+        return Integer.parseInt(text.substring(9, 12));
+    }
+
+    private static ByteBuffer request(InetSocketAddress address, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String head = "POST /checkin HTTP/1.1\r\n"
+                + "Host: " + address.getHostString() + ":" + address.getPort() + "\r\n"
+                + "Content-Type: application/x-www-form-urlencoded\r\n"
+                + "Content-Length: " + bytes.length + "\r\n"
+                + "Connection: close\r\n"
+                + "\r\n";
+        ByteBuffer request = ByteBuffer.allocate(head.length() + bytes.length);
+        request.put(head.getBytes(StandardCharsets.ISO_8859_1)).put(bytes).flip();
+        return request;
+    }
+
+    // Names may only hold letters, so the request number is spelled in letters
+    private static String letters(int n) {
+        StringBuilder name = new StringBuilder();
+        do {
+            name.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return name.toString();
+    }
+
+    private static double percentile(long[] sorted, double percent) {
+        int rank = (int) Math.ceil(percent / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private static void deleteAll(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,457 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Local HTTP check-in service for kiosks, phones and the Swing form.
+//
+//   POST /checkin   form fields name and course
+//                   201 {"epochMillis":..,"time":"..","signature":".."} once the check-in is on disk;
+//                   the signature is issued here and kept unique across restarts
+//                   400 {"error":".."} when CheckInValidator rejects it
+//                   409 {"error":".."} when the student already checked in for the course today
+//   GET /rollups    course (all if omitted), from and to (2026-10-17T07:00), bucket minutes (default 5)
+//                   200 {"course":..,"from":"..","to":"..","bucketMinutes":5,"counts":[..]}
+//   GET /late       course (all if omitted), from and to days (2026-10-12), cutoff (07:30)
+//                   200 {"course":..,"from":"..","to":"..","cutoff":"..","late":..}
+//
+// Every connection gets its own thread that reads requests, waits for the journal and
+// writes answers with plain blocking I/O. On Java 21+ these are virtual threads, so ten
+// thousand waiting kiosks cost little; older JVMs fall back to platform threads. The
+// journal's writer commits everything queued together, so a rush of check-ins shares
+// each fsync.
+//
+// Usage: java CheckInServer [port] [journal directory]
+public class CheckInServer {
+    public static final int DEFAULT_PORT = 8642;
+
+    private static final int BACKLOG = 16384;
+    private static final int MAX_HEADER_BYTES = 8192;
+    private static final int MAX_BODY_BYTES = 4 * 0xFFFF;
+    private static final int IDLE_TIMEOUT_MILLIS = 30_000;
+    private static final int MAX_BUCKETS = 100_000;
+
+    private final AttendanceJournal journal;
+    private final CheckInDeduplicator duplicates;
+    private final AttendanceRollups rollups;
+    private final SignatureGenerator signatures;
+    private final ServerSocket listener;
+    private final ExecutorService connections = newExecutor();
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+    private volatile boolean running;
+
+    public CheckInServer(AttendanceJournal journal, int port) throws IOException {
+        this.journal = journal;
+        this.duplicates = CheckInDeduplicator.fromJournal(journal);
+        this.rollups = AttendanceRollups.fromJournal(journal);
+        // Only this machine's kiosks and forms; a burst waits in the accept backlog
+        this.listener = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        try {
+            this.signatures = SignatureGenerator.open(journal.directory());
+        } catch (IOException e) {
+            listener.close();
+            throw e;
+        }
+        this.acceptor = new Thread(this::acceptLoop, "check-in-acceptor"); // keeps the JVM up until stop()
+    }
+
+    public void start() {
+        running = true;
+        acceptor.start();
+    }
+
+    // Port actually bound, e.g. when created with port 0
+    public int port() {
+        return listener.getLocalPort();
+    }
+
+    // Stops accepting, drops open connections and waits briefly for answers in progress
+    public void stop() {
+        running = false;
+        try {
+            listener.close();
+        } catch (IOException ignored) {
+        }
+        for (Socket socket : open) closeQuietly(socket);
+        connections.shutdown();
+        try {
+            connections.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() when running on Java 21 or later
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "check-in");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            Socket socket;
+            try {
+                socket = listener.accept();
+            } catch (IOException e) {
+                if (!running) return;
+                continue; // e.g. a connection reset before it was accepted
+            }
+            try {
+                connections.execute(() -> serve(socket));
+            } catch (RejectedExecutionException e) {
+                closeQuietly(socket); // stopping
+            }
+        }
+    }
+
+    // Answers requests on one connection until the client closes it or asks to
+    private void serve(Socket socket) {
+        open.add(socket);
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            Request request;
+            while ((request = Request.read(in)) != null) {
+                boolean keepAlive = request.keepAlive();
+                Response response = handle(request);
+                response.write(out, keepAlive);
+                if (!keepAlive) break;
+            }
+        } catch (SocketTimeoutException | SocketException e) {
+            // idle too long, reset by the client, or stopped
+        } catch (IOException e) {
+            // malformed request; answered where possible, then dropped
+        } finally {
+            open.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    private Response handle(Request request) {
+        if (request.malformed != null) {
+            return Response.error(request.status, request.malformed);
+        }
+        int query = request.path.indexOf('?');
+        String path = query < 0 ? request.path : request.path.substring(0, query);
+        switch (path) {
+            case "/checkin":
+                if (!request.method.equals("POST")) return Response.notAllowed("POST");
+                return checkIn(request);
+            case "/rollups":
+            case "/late":
+                if (!request.method.equals("GET")) return Response.notAllowed("GET");
+                try {
+                    Map<String, String> parameters = parseForm(query < 0 ? "" : request.path.substring(query + 1));
+                    return path.equals("/late") ? late(parameters) : rollups(parameters);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    return Response.error(400, "Bad query: " + e.getMessage());
+                }
+            default:
+                return Response.error(404, "Not found");
+        }
+    }
+
+    private Response checkIn(Request request) {
+        Map<String, String> form;
+        try {
+            form = parseForm(new String(request.body, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return Response.error(400, "Malformed form data");
+        }
+        String name = form.getOrDefault("name", "").trim();
+        String course = form.getOrDefault("course", "").trim();
+        String problem = CheckInValidator.error(name, course);
+        if (problem != null) {
+            return Response.error(400, problem);
+        }
+        // Issued here, never taken from the form, so a client cannot reuse one
+        String signature;
+        try {
+            signature = signatures.next();
+        } catch (UncheckedIOException e) {
+            return Response.error(503, "Attendance could not be saved: " + e.getMessage());
+        }
+
+        long now = System.currentTimeMillis();
+        if (!duplicates.tryRecord(name, course, now)) {
+            return Response.error(409, name + " has already checked in for " + course + " today!");
+        }
+        long millis;
+        try {
+            // Blocking is the point: this connection's thread waits for the group commit
+            millis = journal.append(name, course, signature).get();
+        } catch (ExecutionException e) {
+            duplicates.forget(name, course, now);
+            return Response.error(503, "Attendance could not be saved: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            duplicates.forget(name, course, now); // the check-in may still be written
+            Thread.currentThread().interrupt();
+            return Response.error(503, "Server is stopping");
+        }
+        rollups.record(course, millis);
+        return new Response(201, "{\"epochMillis\":" + millis
+                + ",\"time\":" + json(AttendanceTracker.formatTime(millis))
+                + ",\"signature\":" + json(signature) + "}");
+    }
+
+    private Response rollups(Map<String, String> parameters) {
+        String course = parameters.get("course");
+        LocalDateTime from = LocalDateTime.parse(required(parameters, "from"));
+        LocalDateTime to = LocalDateTime.parse(required(parameters, "to"));
+        int bucket = Integer.parseInt(parameters.getOrDefault("bucket", "5"));
+        if (Duration.between(from, to).toMinutes() / Math.max(1, bucket) > MAX_BUCKETS) {
+            throw new IllegalArgumentException("more than " + MAX_BUCKETS + " buckets");
+        }
+        int[] counts = rollups.series(course, from, to, bucket);
+        StringBuilder json = new StringBuilder("{\"course\":").append(course == null ? "null" : json(course))
+                .append(",\"from\":").append(json(from.toString()))
+                .append(",\"to\":").append(json(to.toString()))
+                .append(",\"bucketMinutes\":").append(bucket)
+                .append(",\"counts\":[");
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0) json.append(',');
+            json.append(counts[i]);
+        }
+        return new Response(200, json.append("]}").toString());
+    }
+
+    private Response late(Map<String, String> parameters) {
+        String course = parameters.get("course");
+        LocalDate from = LocalDate.parse(required(parameters, "from"));
+        LocalDate to = LocalDate.parse(required(parameters, "to"));
+        LocalTime cutoff = LocalTime.parse(required(parameters, "cutoff"));
+        int late = rollups.lateArrivals(course, from, to, cutoff);
+        return new Response(200, "{\"course\":" + (course == null ? "null" : json(course))
+                + ",\"from\":" + json(from.toString()) + ",\"to\":" + json(to.toString())
+                + ",\"cutoff\":" + json(cutoff.toString()) + ",\"late\":" + late + "}");
+    }
+
+    private static String required(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException(name + " is required");
+        return value;
+    }
+
+    // One HTTP/1.1 request; malformed is set (with the status to answer) instead of
+    // throwing, so the client still gets a reason
+    private static final class Request {
+        String method;
+        String path;
+        String version;
+        final Map<String, String> headers = new HashMap<>();
+        byte[] body = new byte[0];
+        String malformed;
+        int status;
+
+        // Next request on the connection, or null if the client closed it in between
+        static Request read(InputStream in) throws IOException {
+            String line = readLine(in, MAX_HEADER_BYTES);
+            if (line == null) return null;
+            Request request = new Request();
+            String[] parts = line.split(" ");
+            if (parts.length != 3 || !parts[2].startsWith("HTTP/1.")) {
+                request.fail(400, "Malformed request line");
+                return request;
+            }
+            request.method = parts[0];
+            request.path = parts[1];
+            request.version = parts[2];
+            int headerBytes = line.length();
+            while (true) {
+                String header = readLine(in, MAX_HEADER_BYTES - headerBytes);
+                if (header == null) throw new IOException("Connection closed inside the headers");
+                if (header.isEmpty()) break;
+                headerBytes += header.length() + 2;
+                int colon = header.indexOf(':');
+                if (colon <= 0) {
+                    request.fail(400, "Malformed header");
+                    return request;
+                }
+                request.headers.put(header.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                        header.substring(colon + 1).trim());
+            }
+            if (request.headers.containsKey("transfer-encoding")) {
+                request.fail(411, "Send a Content-Length");
+                return request;
+            }
+            String length = request.headers.get("content-length");
+            if (length != null) {
+                int bytes;
+                try {
+                    bytes = Integer.parseInt(length);
+                } catch (NumberFormatException e) {
+                    bytes = -1;
+                }
+                if (bytes < 0 || bytes > MAX_BODY_BYTES) {
+                    request.fail(413, "Check-in is too large");
+                    return request;
+                }
+                request.body = in.readNBytes(bytes);
+                if (request.body.length < bytes) throw new IOException("Connection closed inside the body");
+            }
+            return request;
+        }
+
+        boolean keepAlive() {
+            if (malformed != null) return false;
+            String connection = headers.getOrDefault("connection", "");
+            return version.equals("HTTP/1.1") ? !connection.equalsIgnoreCase("close")
+                    : connection.equalsIgnoreCase("keep-alive");
+        }
+
+        private void fail(int status, String message) {
+            this.status = status;
+            this.malformed = message;
+        }
+
+        // A CRLF (or LF) terminated ISO-8859-1 line without its terminator
+        private static String readLine(InputStream in, int limit) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c < 0) {
+                    if (line.length() == 0) return null;
+                    throw new IOException("Connection closed inside a line");
+                }
+                if (line.length() >= limit) throw new IOException("Request headers are too large");
+                line.append((char) c);
+            }
+            int end = line.length();
+            if (end > 0 && line.charAt(end - 1) == '\r') line.setLength(end - 1);
+            return line.toString();
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final String json;
+        String allow;
+
+        Response(int status, String json) {
+            this.status = status;
+            this.json = json;
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, "{\"error\":" + json(message) + "}");
+        }
+
+        static Response notAllowed(String method) {
+            Response response = error(405, "Use " + method);
+            response.allow = method;
+            return response;
+        }
+
+        // Headers and body in a single write, so no packet waits on a delayed ACK
+        void write(OutputStream out, boolean keepAlive) throws IOException {
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream message = new ByteArrayOutputStream(160 + body.length);
+            String head = "HTTP/1.1 " + status + " " + reason(status) + "\r\n"
+                    + "Content-Type: application/json; charset=utf-8\r\n"
+                    + "Content-Length: " + body.length + "\r\n"
+                    + (allow != null ? "Allow: " + allow + "\r\n" : "")
+                    + (keepAlive ? "" : "Connection: close\r\n")
+                    + "\r\n";
+            message.write(head.getBytes(StandardCharsets.ISO_8859_1));
+            message.write(body);
+            message.writeTo(out);
+            out.flush();
+        }
+
+        private static String reason(int status) {
+            switch (status) {
+                case 200: return "OK";
+                case 201: return "Created";
+                case 400: return "Bad Request";
+                case 404: return "Not Found";
+                case 405: return "Method Not Allowed";
+                case 409: return "Conflict";
+                case 411: return "Length Required";
+                case 413: return "Payload Too Large";
+                case 503: return "Service Unavailable";
+                default: return "Error";
+            }
+        }
+    }
+
+    static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) continue;
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            form.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    static String json(String value) {
+        StringBuilder text = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                text.append('\\').append(c);
+            } else if (c < 0x20) {
+                text.append(String.format("\\u%04x", (int) c));
+            } else {
+                text.append(c);
+            }
+        }
+        return text.append('"').toString();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        AttendanceJournal journal = AttendanceJournal.open(Paths.get(args.length > 1 ? args[1] : "attendance-journal"));
+        CheckInServer server = new CheckInServer(journal, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            journal.close();
+        }));
+        server.start();
+        System.out.println("Check-in server listening on http://localhost:" + server.port() + "/checkin");
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Check-in rules shared by the Swing form and the check-in server, so a kiosk, a
+// phone and the desktop form accept exactly the same input
+public class CheckInValidator {
+    public static final List<String> COURSES = Collections.unmodifiableList(Arrays.asList(
+            "BSCS 1st Year", "BSCS 2nd Year", "BSCS 3rd Year", "BSCS 4th Year",
+            "IT 1st Year", "IT 2nd Year", "IT 3rd Year", "IT 4th Year"));
+
+    private static final Set<String> COURSE_SET = new HashSet<>(COURSES);
+
+    private CheckInValidator() {
+    }
+
+    // Error message for the attendance name, or null if it is valid
+    public static String nameError(String name) {
+        if (name == null || name.isEmpty()) {
+            return "Attendance Name is required!";
+        }
+        if (name.length() < 2) {
+            return "Attendance Name must be at least 2 characters!";
+        }
+        if (!lettersAndSpaces(name)) {
+            return "Attendance Name can only contain letters and spaces!";
+        }
+        return null;
+    }
+
+    // Same as name.matches("[a-zA-Z\\s]+") without compiling a pattern on every check-in
+    static boolean lettersAndSpaces(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean letter = (c | 0x20) >= 'a' && (c | 0x20) <= 'z';
+            boolean space = c == ' ' || (c >= '\t' && c <= '\r'); // \s: space, tab, line feed, vertical tab, form feed, return
+            if (!letter && !space) return false;
+        }
+        return !name.isEmpty();
+    }
+
+    // Error message for the course, or null if it is one of COURSES
+    public static String courseError(String course) {
+        if (course == null || !COURSE_SET.contains(course)) {
+            return "Please select a course!";
+        }
+        return null;
+    }
+
+    // First problem with the check-in, or null if it can be recorded
+    public static String error(String name, String course) {
+        String error = nameError(name);
+        return error != null ? error : courseError(course);
+    }
+}
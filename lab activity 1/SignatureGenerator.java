@@ -0,0 +1,127 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// E-signatures for check-ins, in the form "1F3A9C04-7B2" (44 bits as 11 hex digits).
+//
+// Each signature is a sequence number passed through a keyed permutation of the 44 bit
+// space, so signatures from one generator never repeat (until 2^44 of them) yet do not
+// look sequential. Sequence numbers come from one shared atomic counter, so none are
+// skipped however many threads ask; only the key comes from SecureRandom, once.
+//
+// A generator opened on a directory keeps its key and how far the counter may have
+// got in signatures.state there, so signatures stay unique across restarts. The file
+// is rewritten only every RESERVE sequence numbers, ahead of use; after a crash the
+// rest of the reservation is skipped.
+public class SignatureGenerator {
+    private static final int BITS = 44;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final long RESERVE = 1 << 20; // sequence numbers per state file update
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final String STATE_FILE = "signatures.state";
+    private static final int STATE_MAGIC = 0x53494753; // "SIGS": limit in sequence numbers
+    private static final int BLOCK_STATE_MAGIC = 0x5349474E; // "SIGN": limit in blocks of 1024
+    private static final int STATE_SIZE = 4 + 8 + 8;
+
+    private final long key;
+    private final AtomicLong sequence;
+    private final Path state; // null when nothing is kept
+    private volatile long reserved; // sequence numbers below this may be handed out
+
+    // In memory only: unique for the life of this generator
+    SignatureGenerator(long key) {
+        this(key, 0, null);
+    }
+
+    private SignatureGenerator(long key, long first, Path state) {
+        this.key = key;
+        this.sequence = new AtomicLong(first);
+        this.state = state;
+        this.reserved = state == null ? Long.MAX_VALUE : first;
+    }
+
+    // Opens (or creates) the generator kept in the directory. Counting resumes past
+    // every sequence number an earlier run may have used.
+    public static SignatureGenerator open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path state = directory.resolve(STATE_FILE);
+        if (!Files.exists(state)) {
+            SignatureGenerator created = new SignatureGenerator(new SecureRandom().nextLong(), 0, state);
+            created.save(0);
+            return created;
+        }
+        ByteBuffer saved = ByteBuffer.wrap(Files.readAllBytes(state));
+        int magic = saved.remaining() == STATE_SIZE ? saved.getInt() : 0;
+        if (magic != STATE_MAGIC && magic != BLOCK_STATE_MAGIC) {
+            // A new key could repeat signatures already issued, so this needs a person
+            throw new IOException(state + " is damaged");
+        }
+        long key = saved.getLong();
+        long limit = saved.getLong();
+        return new SignatureGenerator(key, magic == BLOCK_STATE_MAGIC ? limit * 1024 : limit, state);
+    }
+
+    // Throws UncheckedIOException if the next reservation cannot be saved
+    public String next() {
+        long taken = sequence.getAndIncrement();
+        if (taken >= reserved) reserve(taken);
+        return format(permute(taken & MASK));
+    }
+
+    private synchronized void reserve(long taken) {
+        if (taken < reserved) return; // another thread reserved it meanwhile
+        long next = (taken / RESERVE + 1) * RESERVE;
+        try {
+            save(next);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to save " + state, e);
+        }
+        reserved = next;
+    }
+
+    // Written to a temporary file and moved over the old one, so a crash leaves
+    // either the old or the new reservation
+    private void save(long limit) throws IOException {
+        ByteBuffer contents = ByteBuffer.allocate(STATE_SIZE);
+        contents.putInt(STATE_MAGIC).putLong(key).putLong(limit).flip();
+        Path temporary = state.resolveSibling(STATE_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (contents.hasRemaining()) channel.write(contents);
+            channel.force(true);
+        }
+        Files.move(temporary, state, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // A bijection on 44 bit values: each step (xor, odd multiply, xor-shift, all
+    // modulo 2^44) can be undone, so distinct sequence numbers give distinct signatures
+    long permute(long x) {
+        x = (x ^ key) & MASK;
+        x = (x * 0x9E3779B97F4A7C15L + (key >>> BITS)) & MASK;
+        x ^= x >>> 23;
+        x = (x * 0xBF58476D1CE4E5B9L) & MASK;
+        x ^= x >>> 19;
+        x = (x * 0x94D049BB133111EBL) & MASK;
+        return x ^ (x >>> 22);
+    }
+
+    static String format(long bits) {
+        char[] text = new char[12];
+        for (int i = 11, shift = 0; i >= 0; i--) {
+            if (i == 8) {
+                text[i] = '-';
+                continue;
+            }
+            text[i] = HEX[(int) (bits >>> shift) & 0xF];
+            shift += 4;
+        }
+        return new String(text);
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Timings of grade calculations: "grade.form" for each Calculate click in
+// PrelimGradeCalculatorGUI and "grade.batch" for each PrelimGradeEngine.grade call.
+// Run with -Dgrades.metrics=stderr (or a file name) to print them on exit.
+public class GradeMetrics {
+    private static final Map<String, Timer> timers = new TreeMap<>(); // guarded by itself
+
+    private GradeMetrics() {
+    }
+
+    static Timer timer(String name) {
+        synchronized (timers) {
+            return timers.computeIfAbsent(name, k -> new Timer());
+        }
+    }
+
+    // Count, mean and maximum of the recorded times, and a histogram with one bucket per
+    // power of two of nanoseconds for the median and 99th percentile (each within a
+    // factor of two). Calculations are timed a few at a time, so a lock is cheap enough.
+    static final class Timer {
+        private final long[] buckets = new long[64];
+        private long count;
+        private long total;
+        private long max;
+
+        synchronized void record(long nanos) {
+            long value = Math.max(1, nanos);
+            buckets[63 - Long.numberOfLeadingZeros(value)]++;
+            count++;
+            total += value;
+            max = Math.max(max, value);
+        }
+
+        synchronized String summary(String name) {
+            double mean = count == 0 ? 0 : (double) total / count;
+            return String.format("%-12s %8d %10.3f %10.3f %10.3f %10.3f%n", name, count,
+                    mean / 1e6, percentile(50) / 1e6, percentile(99) / 1e6, max / 1e6);
+        }
+
+        // Upper bound of the bucket holding the percentile
+        private long percentile(double percent) {
+            long rank = (long) Math.ceil(percent / 100 * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length && count > 0; i++) {
+                seen += buckets[i];
+                if (seen >= rank) return Math.min(max, (2L << i) - 1);
+            }
+            return max;
+        }
+    }
+
+    static void dumpOnExitIfRequested() {
+        String target = System.getProperty("grades.metrics");
+        if (target == null || target.isEmpty()) return;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (target.equals("stderr")) {
+                System.err.print(summary());
+                return;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(target)), true, "UTF-8")) {
+                out.print(summary());
+            } catch (IOException e) {
+                System.err.println("Unable to write grade metrics to " + target + ": " + e.getMessage());
+            }
+        }, "grade-metrics"));
+    }
+
+    static String summary() {
+        StringBuilder text = new StringBuilder(String.format("%-12s %8s %10s %10s %10s %10s%n",
+                "time (ms)", "count", "mean", "p50", "p99", "max"));
+        synchronized (timers) {
+            timers.forEach((name, timer) -> text.append(timer.summary(name)));
+        }
+        return text.toString();
+    }
+}
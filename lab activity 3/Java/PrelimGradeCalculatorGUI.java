@@ -1,6 +1,7 @@
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -9,7 +10,7 @@ public class PrelimGradeCalculatorGUI extends JFrame {
     private JTextField absencesField, lw1Field, lw2Field, lw3Field;
     private JEditorPane remarksArea;
     private JLabel attendanceLabel, labLabel, classLabel, passLabel, excelLabel;
-    private JButton calculateButton, clearButton;
+    private JButton calculateButton, clearButton, whatIfButton;
 
     public PrelimGradeCalculatorGUI() {
         // Frame setup
@@ -235,6 +236,17 @@ public class PrelimGradeCalculatorGUI extends JFrame {
         buttonPanel.add(clearButton);
 
         inputPanel.add(buttonPanel);
+        inputPanel.add(Box.createVerticalStrut(10));
+
+        whatIfButton = new JButton("What-If...");
+        whatIfButton.setFont(new Font("Arial", Font.BOLD, 13));
+        whatIfButton.setBackground(new Color(102, 102, 102));
+        whatIfButton.setForeground(Color.WHITE);
+        whatIfButton.setFocusPainted(false);
+        whatIfButton.setAlignmentX(Component.LEFT_ALIGNMENT);
+        whatIfButton.setMaximumSize(new Dimension(Integer.MAX_VALUE, 40));
+        whatIfButton.addActionListener(e -> showWhatIf());
+        inputPanel.add(whatIfButton);
         inputPanel.add(Box.createVerticalGlue());
 
         return inputPanel;
@@ -261,8 +273,27 @@ public class PrelimGradeCalculatorGUI extends JFrame {
     }
 
     private class CalculateButtonListener implements ActionListener {
+        // Each click that shows results is timed into "grade.form" and, while a
+        // recording runs, a records.Grade event; input errors are not, as their time
+        // is mostly the user reading the dialog
         @Override
         public void actionPerformed(ActionEvent e) {
+            PrelimGradeEngine.GradeEvent event = new PrelimGradeEngine.GradeEvent();
+            event.begin();
+            long start = System.nanoTime();
+            if (!calculate()) return;
+            GradeMetrics.timer("grade.form").record(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.source = "form";
+                event.students = 1;
+                event.parallelism = 1;
+                event.commit();
+            }
+        }
+
+        // Returns false when the input was rejected
+        private boolean calculate() {
             try {
                 int absences = Integer.parseInt(absencesField.getText());
                 double lw1 = Double.parseDouble(lw1Field.getText());
@@ -272,16 +303,16 @@ public class PrelimGradeCalculatorGUI extends JFrame {
                 if (absences < 0 || absences > 4) {
                     JOptionPane.showMessageDialog(null, " Absences must be between 0 and 4.", 
                         "Input Error", JOptionPane.ERROR_MESSAGE);
-                    return;
+                    return false;
                 }
 
                 if (lw1 < 0 || lw1 > 100 || lw2 < 0 || lw2 > 100 || lw3 < 0 || lw3 > 100) {
                     JOptionPane.showMessageDialog(null, " Lab Work grades must be between 0 and 100.", 
                         "Input Error", JOptionPane.ERROR_MESSAGE);
-                    return;
+                    return false;
                 }
 
-                if (absences >= 4) {
+                if (absences >= PrelimGradeEngine.FAILING_ABSENCES) {
                     attendanceLabel.setText("FAIL");
                     labLabel.setText("—");
                     classLabel.setText("—");
@@ -290,14 +321,14 @@ public class PrelimGradeCalculatorGUI extends JFrame {
                     remarksArea.setText("<h3 style='margin: 0 0 10px 0; font-size: 14px; color: #333;'> Automatic Failure</h3>" + 
                         "<p style='margin: 0; font-size: 12px; color: #555;'>You have <strong>" + absences + " absences</strong>. With 4 or more absences, you automatically fail the Prelim period.</p>");
                     remarksArea.setBackground(new Color(255, 235, 238));
-                    return;
+                    return true;
                 }
 
-                double labWorkAverage = (lw1 + lw2 + lw3) / 3.0;
-                double attendanceScore = 100 - (absences * 10);
-                double classStanding = (0.40 * attendanceScore) + (0.60 * labWorkAverage);
-                double rawPassingScore = (75 - (0.30 * classStanding)) / 0.70;
-                double rawExcellentScore = (100 - (0.30 * classStanding)) / 0.70;
+                double labWorkAverage = PrelimGradeEngine.labAverage(lw1, lw2, lw3);
+                double attendanceScore = PrelimGradeEngine.attendanceScore(absences);
+                double classStanding = PrelimGradeEngine.classStanding(attendanceScore, labWorkAverage);
+                double rawPassingScore = WhatIfGrid.shared().requiredToPass(absences, lw1, lw2, lw3);
+                double rawExcellentScore = WhatIfGrid.shared().requiredToExcel(absences, lw1, lw2, lw3);
 
                 // Update labels
                 attendanceLabel.setText(String.format("%.0f%%", attendanceScore));
@@ -305,17 +336,17 @@ public class PrelimGradeCalculatorGUI extends JFrame {
                 classLabel.setText(String.format("%.0f", classStanding));
 
                 // Update exam scores
-                if (rawPassingScore > 100) {
+                if (!PrelimGradeEngine.reachable(rawPassingScore)) {
                     passLabel.setText(" Not Possible");
-                } else if (rawPassingScore < 0) {
+                } else if (PrelimGradeEngine.alreadyReached(rawPassingScore)) {
                     passLabel.setText("Already Pass");
                 } else {
                     passLabel.setText(String.format("%.0f", rawPassingScore));
                 }
 
-                if (rawExcellentScore > 100) {
+                if (!PrelimGradeEngine.reachable(rawExcellentScore)) {
                     excelLabel.setText(" Not Possible");
-                } else if (rawExcellentScore < 0) {
+                } else if (PrelimGradeEngine.alreadyReached(rawExcellentScore)) {
                     excelLabel.setText("Already Excel");
                 } else {
                     excelLabel.setText(String.format("%.0f", rawExcellentScore));
@@ -323,18 +354,18 @@ public class PrelimGradeCalculatorGUI extends JFrame {
 
                 // Update remarks
                 String remarksText = "";
-                if (rawPassingScore > 100) {
+                if (!PrelimGradeEngine.reachable(rawPassingScore)) {
                     remarksText = "<h3 style='margin: 0 0 10px 0; font-size: 14px; color: #333;'> Critical Notice</h3>" + 
                         "<p style='margin: 0; font-size: 12px; color: #555;'>Even with a perfect Prelim Exam score (100), you cannot achieve a passing grade of 75 with your current Class Standing of <strong>" + 
                         String.format("%.0f", classStanding) + "</strong>. Your Class Standing is too low.</p>";
                     remarksArea.setBackground(new Color(255, 235, 238));
-                } else if (rawPassingScore <= 0) {
+                } else if (PrelimGradeEngine.alreadyReached(rawPassingScore)) {
                     remarksText = "<h3 style='margin: 0 0 10px 0; font-size: 14px; color: #333;'>Excellent News!</h3>" + 
                         "<p style='margin: 0; font-size: 12px; color: #555;'>You are already guaranteed to pass the Prelim period with your current Class Standing of <strong>" + 
                         String.format("%.0f", classStanding) + "</strong>!<br><br>";
-                    if (rawExcellentScore <= 0) {
+                    if (PrelimGradeEngine.alreadyReached(rawExcellentScore)) {
                         remarksText += "You are also already guaranteed an Excellent grade (100)!";
-                    } else if (rawExcellentScore <= 100) {
+                    } else if (PrelimGradeEngine.reachable(rawExcellentScore)) {
                         remarksText += "You can achieve an Excellent grade with a score of <strong>" + String.format("%.0f", rawExcellentScore) + "</strong> in the Prelim Exam.";
                     }
                     remarksText += "</p>";
@@ -343,9 +374,9 @@ public class PrelimGradeCalculatorGUI extends JFrame {
                     remarksText = "<h3 style='margin: 0 0 10px 0; font-size: 14px; color: #333;'>You Can Pass!</h3>" + 
                         "<p style='margin: 0; font-size: 12px; color: #555;'>Based on your current Class Standing of <strong>" + String.format("%.0f", classStanding) + 
                         "</strong>, you can achieve a passing grade.<br><br>";
-                    if (rawExcellentScore <= 0) {
+                    if (PrelimGradeEngine.alreadyReached(rawExcellentScore)) {
                         remarksText += "You are already guaranteed an Excellent grade (100)!";
-                    } else if (rawExcellentScore <= 100) {
+                    } else if (PrelimGradeEngine.reachable(rawExcellentScore)) {
                         remarksText += "An excellent grade (100) is achievable with a score of <strong>" + String.format("%.0f", rawExcellentScore) + "</strong> in the Prelim Exam.";
                     } else {
                         remarksText += "To achieve an Excellent grade (100), you would need more than 100 in the Prelim Exam, which is not possible.";
@@ -355,14 +386,69 @@ public class PrelimGradeCalculatorGUI extends JFrame {
                 }
 
                 remarksArea.setText(remarksText);
-
+                return true;
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(null, " Please enter valid numbers.", 
                     "Input Error", JOptionPane.ERROR_MESSAGE);
+                return false;
             }
         }
     }
 
+    // Lowest lab average that still leaves a pass (or an excellent grade) within reach
+    // for each absence count, given the best exam score the student expects. Every
+    // change of that score is a sweep over the precomputed grid.
+    private void showWhatIf() {
+        JDialog dialog = new JDialog(this, "What-If", true);
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBackground(Color.WHITE);
+        panel.setBorder(new EmptyBorder(15, 15, 15, 15));
+
+        JPanel examPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        examPanel.setBackground(Color.WHITE);
+        JLabel examLabel = new JLabel("Highest Prelim Exam score you expect:  ");
+        examLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+        JSpinner examSpinner = new JSpinner(new SpinnerNumberModel(100, 0, 100, 1));
+        examPanel.add(examLabel);
+        examPanel.add(examSpinner);
+        panel.add(examPanel, BorderLayout.NORTH);
+
+        DefaultTableModel sweep = new DefaultTableModel(
+                new Object[]{"Absences", "Lowest Lab Average to Pass", "Lowest Lab Average to Excel"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        Runnable update = () -> {
+            int maxExam = (Integer) examSpinner.getValue();
+            WhatIfGrid grid = WhatIfGrid.shared();
+            sweep.setRowCount(0);
+            for (int absences = 0; absences <= WhatIfGrid.MAX_ABSENCES; absences++) {
+                sweep.addRow(new Object[]{absences,
+                        describeLabSum(absences, grid.minimumLabSumToPass(absences, maxExam)),
+                        describeLabSum(absences, grid.minimumLabSumToExcel(absences, maxExam))});
+            }
+        };
+        update.run();
+        examSpinner.addChangeListener(e -> update.run());
+        JTable table = new JTable(sweep);
+        table.setFont(new Font("Arial", Font.PLAIN, 12));
+        table.setRowHeight(24);
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+
+        dialog.add(panel);
+        dialog.setSize(560, 260);
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+
+    private static String describeLabSum(int absences, int labSum) {
+        if (absences >= PrelimGradeEngine.FAILING_ABSENCES) return "Automatic Failure";
+        if (labSum < 0) return "Not Possible";
+        return String.format("%.2f", labSum / 3.0);
+    }
+
     private class ClearButtonListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
@@ -382,6 +468,7 @@ public class PrelimGradeCalculatorGUI extends JFrame {
     }
 
     public static void main(String[] args) {
+        GradeMetrics.dumpOnExitIfRequested();
         SwingUtilities.invokeLater(() -> new PrelimGradeCalculatorGUI());
     }
 }
@@ -0,0 +1,486 @@
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+// Prelim grade formulas, usable one student at a time (PrelimGradeCalculatorGUI) or
+// for a whole records file in the MOCK_DATA.csv layout:
+//   StudentID,first_name,last_name,LAB WORK 1,LAB WORK 2,LAB WORK 3,PRELIM EXAM,ATTENDANCE GRADE
+// The file is split into line-aligned chunks that are parsed in parallel into
+// primitive columns, then graded with a fork-join pass over those columns.
+//
+// Usage: java PrelimGradeEngine <records.csv> [graded.csv]
+public class PrelimGradeEngine {
+    public static final double PASSING_GRADE = 75;
+    public static final double EXCELLENT_GRADE = 100;
+    public static final int FAILING_ABSENCES = 4;
+
+    private static final int GRADE_THRESHOLD = 1 << 16; // rows per fork-join leaf
+    private static final int MAX_CHUNK_BYTES = 256 << 20;
+
+    private PrelimGradeEngine() {
+    }
+
+    public static double labAverage(double lw1, double lw2, double lw3) {
+        return (lw1 + lw2 + lw3) / 3.0;
+    }
+
+    public static double attendanceScore(int absences) {
+        return 100 - (absences * 10);
+    }
+
+    public static double classStanding(double attendanceScore, double labWorkAverage) {
+        return (0.40 * attendanceScore) + (0.60 * labWorkAverage);
+    }
+
+    // Prelim Exam score needed to reach the target grade; may be below 0 (already
+    // reached) or above 100 (not possible)
+    public static double requiredExamScore(double targetGrade, double classStanding) {
+        return (targetGrade - (0.30 * classStanding)) / 0.70;
+    }
+
+    // Whether a required exam score means the target is reached whatever the exam
+    // score; the form, the what-if grid and the batch summary all decide with this
+    public static boolean alreadyReached(double requiredExamScore) {
+        return requiredExamScore <= 0;
+    }
+
+    // Whether a Prelim Exam score of at most 100 reaches the target
+    public static boolean reachable(double requiredExamScore) {
+        return requiredExamScore <= 100;
+    }
+
+    public static double prelimGrade(double classStanding, double examScore) {
+        return (0.30 * classStanding) + (0.70 * examScore);
+    }
+
+    // Score columns of a records file. The ATTENDANCE GRADE column is already the
+    // 0-100 attendance score, so no absence count is involved.
+    public static final class Records {
+        int size;
+        long[] ids;
+        byte[] idWidths; // digits in the StudentID, keeps leading zeros
+        byte[] lab1;
+        byte[] lab2;
+        byte[] lab3;
+        byte[] exam;
+        byte[] attendance;
+        int invalidRows;
+
+        Records(int capacity) {
+            ids = new long[capacity];
+            idWidths = new byte[capacity];
+            lab1 = new byte[capacity];
+            lab2 = new byte[capacity];
+            lab3 = new byte[capacity];
+            exam = new byte[capacity];
+            attendance = new byte[capacity];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        void add(long id, int width, int[] scores) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                idWidths = Arrays.copyOf(idWidths, capacity);
+                lab1 = Arrays.copyOf(lab1, capacity);
+                lab2 = Arrays.copyOf(lab2, capacity);
+                lab3 = Arrays.copyOf(lab3, capacity);
+                exam = Arrays.copyOf(exam, capacity);
+                attendance = Arrays.copyOf(attendance, capacity);
+            }
+            ids[size] = id;
+            idWidths[size] = (byte) width;
+            lab1[size] = (byte) scores[0];
+            lab2[size] = (byte) scores[1];
+            lab3[size] = (byte) scores[2];
+            exam[size] = (byte) scores[3];
+            attendance[size] = (byte) scores[4];
+            size++;
+        }
+    }
+
+    // Class-wide totals from grade()
+    public static final class Summary {
+        int students;
+        double classStandingSum;
+        int alreadyPassing;    // required exam score <= 0
+        int canPass;           // required exam score within 0-100
+        int cannotPass;        // required exam score > 100
+        int alreadyExcellent;
+        int canExcel;
+        int cannotExcel;
+        int passedPrelim;      // prelim grade from the recorded exam score >= 75
+
+        Summary merge(Summary other) {
+            students += other.students;
+            classStandingSum += other.classStandingSum;
+            alreadyPassing += other.alreadyPassing;
+            canPass += other.canPass;
+            cannotPass += other.cannotPass;
+            alreadyExcellent += other.alreadyExcellent;
+            canExcel += other.canExcel;
+            cannotExcel += other.cannotExcel;
+            passedPrelim += other.passedPrelim;
+            return this;
+        }
+
+        public double averageClassStanding() {
+            return students == 0 ? 0 : classStandingSum / students;
+        }
+    }
+
+    // Per-student results of grade(), parallel to the Records columns
+    public static final class Grades {
+        final float[] classStanding;
+        final float[] prelimGrade;
+        final Summary summary;
+
+        Grades(float[] classStanding, float[] prelimGrade, Summary summary) {
+            this.classStanding = classStanding;
+            this.prelimGrade = prelimGrade;
+            this.summary = summary;
+        }
+
+        public Summary summary() {
+            return summary;
+        }
+
+        public double requiredToPass(int index) {
+            return requiredExamScore(PASSING_GRADE, classStanding[index]);
+        }
+
+        public double requiredToExcel(int index) {
+            return requiredExamScore(EXCELLENT_GRADE, classStanding[index]);
+        }
+    }
+
+    // Parses the file with one task per line-aligned chunk
+    public static Records read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int parallelism = ForkJoinPool.getCommonPoolParallelism() + 1;
+            int chunks = (int) Math.max(parallelism * 4L, (length + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+            chunks = (int) Math.max(1, Math.min(chunks, length / 4096 + 1));
+            long[] bounds = new long[chunks + 1];
+            bounds[chunks] = length;
+            for (int i = 1; i < chunks; i++) {
+                bounds[i] = Math.max(bounds[i - 1], nextLineStart(channel, length * i / chunks));
+            }
+            try {
+                List<Records> parts = IntStream.range(0, chunks).parallel()
+                        .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1], i == 0))
+                        .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+                return concat(parts);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // Flight Recorder event for one grade() call or one Calculate click in the form,
+    // e.g. -XX:StartFlightRecording
+    @Name("records.Grade")
+    @Label("Prelim Grade Calculation")
+    @Category("Records")
+    static final class GradeEvent extends Event {
+        @Label("Source")
+        String source;
+        @Label("Students")
+        int students;
+        @Label("Passed Prelim")
+        int passedPrelim;
+        @Label("Parallelism")
+        int parallelism;
+    }
+
+    // Class standing, prelim grade and totals for every student, in parallel
+    public static Grades grade(Records records) {
+        GradeEvent event = new GradeEvent();
+        event.begin();
+        long start = System.nanoTime();
+        float[] classStanding = new float[records.size];
+        float[] prelimGrade = new float[records.size];
+        Summary summary = ForkJoinPool.commonPool()
+                .invoke(new GradeTask(records, classStanding, prelimGrade, 0, records.size));
+        GradeMetrics.timer("grade.batch").record(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = "batch";
+            event.students = summary.students;
+            event.passedPrelim = summary.passedPrelim;
+            event.parallelism = ForkJoinPool.getCommonPoolParallelism();
+            event.commit();
+        }
+        return new Grades(classStanding, prelimGrade, summary);
+    }
+
+    private static final class GradeTask extends RecursiveTask<Summary> {
+        private final Records records;
+        private final float[] classStanding;
+        private final float[] prelimGrade;
+        private final int from;
+        private final int to;
+
+        GradeTask(Records records, float[] classStanding, float[] prelimGrade, int from, int to) {
+            this.records = records;
+            this.classStanding = classStanding;
+            this.prelimGrade = prelimGrade;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from > GRADE_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                GradeTask left = new GradeTask(records, classStanding, prelimGrade, from, mid);
+                left.fork();
+                Summary right = new GradeTask(records, classStanding, prelimGrade, mid, to).compute();
+                return right.merge(left.join());
+            }
+            Summary summary = new Summary();
+            for (int i = from; i < to; i++) {
+                double lab = labAverage(records.lab1[i], records.lab2[i], records.lab3[i]);
+                double cs = classStanding(records.attendance[i], lab);
+                double toPass = requiredExamScore(PASSING_GRADE, cs);
+                double toExcel = requiredExamScore(EXCELLENT_GRADE, cs);
+                double grade = prelimGrade(cs, records.exam[i]);
+                classStanding[i] = (float) cs;
+                prelimGrade[i] = (float) grade;
+                summary.classStandingSum += cs;
+                if (alreadyReached(toPass)) summary.alreadyPassing++;
+                else if (reachable(toPass)) summary.canPass++;
+                else summary.cannotPass++;
+                if (alreadyReached(toExcel)) summary.alreadyExcellent++;
+                else if (reachable(toExcel)) summary.canExcel++;
+                else summary.cannotExcel++;
+                if (grade >= PASSING_GRADE) summary.passedPrelim++;
+            }
+            summary.students = to - from;
+            return summary;
+        }
+    }
+
+    // Writes StudentID, class standing, required scores and prelim grade per student.
+    // Blocks of rows are formatted in parallel and written in file order.
+    public static void write(Path out, Records records, Grades grades) throws IOException {
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.wrap(
+                    "StudentID,CLASS STANDING,TO PASS,TO EXCEL,PRELIM GRADE\n".getBytes()));
+            int block = GRADE_THRESHOLD;
+            int blocksPerRound = (ForkJoinPool.getCommonPoolParallelism() + 1) * 4;
+            for (int start = 0; start < records.size; start += block * blocksPerRound) {
+                int roundStart = start;
+                int blocks = Math.min(blocksPerRound, (records.size - start + block - 1) / block);
+                List<ByteBuffer> formatted = IntStream.range(0, blocks).parallel()
+                        .mapToObj(b -> format(records, grades, roundStart + b * block,
+                                Math.min(records.size, roundStart + (b + 1) * block)))
+                        .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+                for (ByteBuffer buffer : formatted) {
+                    writeFully(channel, buffer);
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer format(Records records, Grades grades, int from, int to) {
+        ByteBuffer out = ByteBuffer.allocate((to - from) * 64);
+        for (int i = from; i < to; i++) {
+            putId(out, records.ids[i], records.idWidths[i]);
+            out.put((byte) ',');
+            putFixed(out, grades.classStanding[i]);
+            out.put((byte) ',');
+            putFixed(out, grades.requiredToPass(i));
+            out.put((byte) ',');
+            putFixed(out, grades.requiredToExcel(i));
+            out.put((byte) ',');
+            putFixed(out, grades.prelimGrade[i]);
+            out.put((byte) '\n');
+        }
+        out.flip();
+        return out;
+    }
+
+    private static void putId(ByteBuffer out, long id, int width) {
+        byte[] digits = new byte[19];
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' + id % 10);
+            id /= 10;
+        } while (id > 0);
+        while (n < width) digits[n++] = '0';
+        while (n > 0) out.put(digits[--n]);
+    }
+
+    // Two decimal places without going through String.format
+    private static void putFixed(ByteBuffer out, double value) {
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            out.put((byte) '-');
+            hundredths = -hundredths;
+        }
+        putId(out, hundredths / 100, 1);
+        out.put((byte) '.');
+        out.put((byte) ('0' + hundredths / 10 % 10));
+        out.put((byte) ('0' + hundredths % 10));
+    }
+
+    private static Records parseChunk(FileChannel channel, long start, long end, boolean first) {
+        Records records = new Records((int) Math.max(16, (end - start) / 40));
+        if (end <= start) return records;
+        MappedByteBuffer buf;
+        try {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int limit = buf.limit();
+        int pos = 0;
+        if (first && limit >= 3 && buf.get(0) == (byte) 0xEF && buf.get(1) == (byte) 0xBB && buf.get(2) == (byte) 0xBF) {
+            pos = 3;
+        }
+        int[] scores = new int[5];
+        boolean header = first;
+        while (pos < limit) {
+            int lineEnd = pos;
+            while (lineEnd < limit && buf.get(lineEnd) != '\n') lineEnd++;
+            int next = lineEnd + 1;
+            if (lineEnd > pos && buf.get(lineEnd - 1) == '\r') lineEnd--;
+            if (lineEnd > pos && !(header && buf.get(pos) == 'S')) {
+                if (!parseLine(buf, pos, lineEnd, scores, records)) records.invalidRows++;
+            }
+            header = false;
+            pos = next;
+        }
+        return records;
+    }
+
+    // StudentID, two name fields (possibly quoted) and five scores from 0 to 100
+    private static boolean parseLine(ByteBuffer buf, int pos, int end, int[] scores, Records records) {
+        long id = 0;
+        int width = 0;
+        while (pos < end && buf.get(pos) != ',') {
+            int digit = buf.get(pos++) - '0';
+            if (digit < 0 || digit > 9 || ++width > 18) return false;
+            id = id * 10 + digit;
+        }
+        if (width == 0 || pos++ >= end) return false;
+        for (int field = 0; field < 2; field++) {
+            if (pos < end && buf.get(pos) == '"') {
+                pos++;
+                while (pos < end && !(buf.get(pos) == '"' && (pos + 1 >= end || buf.get(pos + 1) != '"'))) {
+                    pos += buf.get(pos) == '"' ? 2 : 1;
+                }
+                pos++;
+            }
+            while (pos < end && buf.get(pos) != ',') pos++;
+            if (pos++ >= end) return false;
+        }
+        for (int i = 0; i < 5; i++) {
+            while (pos < end && buf.get(pos) == ' ') pos++;
+            int value = 0;
+            int digits = 0;
+            while (pos < end && buf.get(pos) >= '0' && buf.get(pos) <= '9') {
+                value = value * 10 + buf.get(pos++) - '0';
+                if (++digits > 3) return false;
+            }
+            while (pos < end && buf.get(pos) == ' ') pos++;
+            if (digits == 0 || value > 100) return false;
+            if (i < 4) {
+                if (pos >= end || buf.get(pos) != ',') return false;
+                pos++;
+            } else if (pos != end) {
+                return false;
+            }
+            scores[i] = value;
+        }
+        records.add(id, width, scores);
+        return true;
+    }
+
+    // Offset just past the first newline at or after position (records hold no newlines)
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long offset = position;
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read <= 0) return channel.size();
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') return offset + i + 1;
+            }
+            offset += read;
+        }
+    }
+
+    private static Records concat(List<Records> parts) {
+        int total = 0;
+        for (Records part : parts) total += part.size;
+        Records all = new Records(Math.max(1, total));
+        for (Records part : parts) {
+            int n = part.size;
+            System.arraycopy(part.ids, 0, all.ids, all.size, n);
+            System.arraycopy(part.idWidths, 0, all.idWidths, all.size, n);
+            System.arraycopy(part.lab1, 0, all.lab1, all.size, n);
+            System.arraycopy(part.lab2, 0, all.lab2, all.size, n);
+            System.arraycopy(part.lab3, 0, all.lab3, all.size, n);
+            System.arraycopy(part.exam, 0, all.exam, all.size, n);
+            System.arraycopy(part.attendance, 0, all.attendance, all.size, n);
+            all.size += n;
+            all.invalidRows += part.invalidRows;
+        }
+        return all;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java PrelimGradeEngine <records.csv> [graded.csv]");
+            System.exit(2);
+        }
+        GradeMetrics.dumpOnExitIfRequested();
+        long start = System.nanoTime();
+        Records records = read(Paths.get(args[0]));
+        long parsed = System.nanoTime();
+        Grades grades = grade(records);
+        long graded = System.nanoTime();
+        Summary s = grades.summary();
+        System.out.printf("Students:            %d (%d invalid rows skipped)%n", s.students, records.invalidRows);
+        System.out.printf("Avg class standing:  %.2f%n", s.averageClassStanding());
+        System.out.printf("To pass (75):        %d already, %d possible, %d not possible%n",
+                s.alreadyPassing, s.canPass, s.cannotPass);
+        System.out.printf("To excel (100):      %d already, %d possible, %d not possible%n",
+                s.alreadyExcellent, s.canExcel, s.cannotExcel);
+        System.out.printf("Passed with exam:    %d%n", s.passedPrelim);
+        System.out.printf("Parsed in %d ms, graded in %d ms%n",
+                (parsed - start) / 1_000_000, (graded - parsed) / 1_000_000);
+        if (args.length > 1) {
+            long writeStart = System.nanoTime();
+            write(Paths.get(args[1]), records, grades);
+            System.out.printf("Wrote %s in %d ms%n", args[1], (System.nanoTime() - writeStart) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+// Required Prelim Exam scores for every input the calculator accepts, precomputed.
+// Absences are 0-4 and the lab average only depends on the sum of the three lab
+// scores (0-300), so the whole surface is 5 x 301 cells per target grade. Whole
+// number inputs are answered with one array read, and because the required score
+// never rises as the lab sum grows, questions like "which lab averages still allow
+// passing with 2 absences" are a binary search along one row.
+//
+// Usage: java WhatIfGrid            prints the lowest lab totals per absence count
+//        java WhatIfGrid --batch    reads "absences,lw1,lw2,lw3" lines from standard
+//                                   input and writes "to pass,to excel" lines
+public final class WhatIfGrid {
+    public static final int MAX_ABSENCES = PrelimGradeEngine.FAILING_ABSENCES;
+    public static final int MAX_LAB_SUM = 300;
+    private static final int SUMS = MAX_LAB_SUM + 1;
+
+    // Built on first use; the holder keeps that lazy and thread-safe
+    private static final class Shared {
+        static final WhatIfGrid GRID = new WhatIfGrid();
+    }
+
+    // [absences * SUMS + lab sum]; absences at FAILING_ABSENCES fail outright, so their
+    // row holds +Infinity (no exam score is enough)
+    private final double[] toPass = new double[(MAX_ABSENCES + 1) * SUMS];
+    private final double[] toExcel = new double[(MAX_ABSENCES + 1) * SUMS];
+
+    // One task per absence count, filling its row of both surfaces
+    private WhatIfGrid() {
+        IntStream.rangeClosed(0, MAX_ABSENCES).parallel().forEach(absences -> {
+            for (int sum = 0; sum <= MAX_LAB_SUM; sum++) {
+                int cell = absences * SUMS + sum;
+                if (absences >= PrelimGradeEngine.FAILING_ABSENCES) {
+                    toPass[cell] = Double.POSITIVE_INFINITY;
+                    toExcel[cell] = Double.POSITIVE_INFINITY;
+                    continue;
+                }
+                // Same arithmetic as a calculation from the three scores, so a lookup
+                // gives exactly the value the formulas would
+                double classStanding = PrelimGradeEngine.classStanding(
+                        PrelimGradeEngine.attendanceScore(absences), PrelimGradeEngine.labAverage(sum, 0, 0));
+                toPass[cell] = PrelimGradeEngine.requiredExamScore(PrelimGradeEngine.PASSING_GRADE, classStanding);
+                toExcel[cell] = PrelimGradeEngine.requiredExamScore(PrelimGradeEngine.EXCELLENT_GRADE, classStanding);
+            }
+        });
+    }
+
+    public static WhatIfGrid shared() {
+        return Shared.GRID;
+    }
+
+    // Exam score needed to pass; see PrelimGradeEngine.alreadyReached and reachable
+    public double requiredToPass(int absences, int labSum) {
+        return toPass[cell(absences, labSum)];
+    }
+
+    public double requiredToExcel(int absences, int labSum) {
+        return toExcel[cell(absences, labSum)];
+    }
+
+    // From the three lab scores; fractional scores fall outside the grid and are
+    // computed directly
+    public double requiredToPass(int absences, double lw1, double lw2, double lw3) {
+        return required(toPass, PrelimGradeEngine.PASSING_GRADE, absences, lw1, lw2, lw3);
+    }
+
+    public double requiredToExcel(int absences, double lw1, double lw2, double lw3) {
+        return required(toExcel, PrelimGradeEngine.EXCELLENT_GRADE, absences, lw1, lw2, lw3);
+    }
+
+    // Lowest lab total (0-300) at which passing needs an exam score of at most
+    // maxExamScore, or -1 if none does; every higher total works too
+    public int minimumLabSumToPass(int absences, double maxExamScore) {
+        return minimumLabSum(toPass, absences, maxExamScore);
+    }
+
+    public int minimumLabSumToExcel(int absences, double maxExamScore) {
+        return minimumLabSum(toExcel, absences, maxExamScore);
+    }
+
+    // Batch lookup of whole number inputs: toPass and toExcel (either may be null)
+    // receive the required scores of the first count students
+    public void lookup(int[] absences, int[] labSums, double[] toPass, double[] toExcel, int count) {
+        for (int i = 0; i < count; i++) {
+            int cell = cell(absences[i], labSums[i]);
+            if (toPass != null) toPass[i] = this.toPass[cell];
+            if (toExcel != null) toExcel[i] = this.toExcel[cell];
+        }
+    }
+
+    private double required(double[] surface, double target, int absences, double lw1, double lw2, double lw3) {
+        double sum = lw1 + lw2 + lw3;
+        if (sum == (int) sum && sum >= 0 && sum <= MAX_LAB_SUM) return surface[cell(absences, (int) sum)];
+        checkAbsences(absences);
+        if (absences >= PrelimGradeEngine.FAILING_ABSENCES) return Double.POSITIVE_INFINITY;
+        double classStanding = PrelimGradeEngine.classStanding(
+                PrelimGradeEngine.attendanceScore(absences), PrelimGradeEngine.labAverage(lw1, lw2, lw3));
+        return PrelimGradeEngine.requiredExamScore(target, classStanding);
+    }
+
+    private static int minimumLabSum(double[] surface, int absences, double maxExamScore) {
+        int row = cell(absences, 0);
+        if (surface[row + MAX_LAB_SUM] > maxExamScore) return -1;
+        int low = 0;
+        int high = MAX_LAB_SUM;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (surface[row + mid] <= maxExamScore) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int cell(int absences, int labSum) {
+        checkAbsences(absences);
+        if (labSum < 0 || labSum > MAX_LAB_SUM) {
+            throw new IllegalArgumentException("Lab total must be between 0 and " + MAX_LAB_SUM + ".");
+        }
+        return absences * SUMS + labSum;
+    }
+
+    private static void checkAbsences(int absences) {
+        if (absences < 0 || absences > MAX_ABSENCES) {
+            throw new IllegalArgumentException("Absences must be between 0 and " + MAX_ABSENCES + ".");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        WhatIfGrid grid = shared();
+        if (args.length > 0 && args[0].equals("--batch")) {
+            batch(grid);
+            return;
+        }
+        System.out.println("Absences  Lowest lab average to pass  Lowest lab average to excel");
+        for (int absences = 0; absences <= MAX_ABSENCES; absences++) {
+            System.out.printf("%-9d %-27s %s%n", absences,
+                    describe(grid.minimumLabSumToPass(absences, 100)),
+                    describe(grid.minimumLabSumToExcel(absences, 100)));
+        }
+    }
+
+    private static String describe(int labSum) {
+        return labSum < 0 ? "not possible" : String.format("%.2f (total %d)", labSum / 3.0, labSum);
+    }
+
+    // Invalid lines get an error line in their place so output stays aligned with input
+    private static void batch(WhatIfGrid grid) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] fields = line.split(",");
+            try {
+                if (fields.length != 4) throw new IllegalArgumentException("Expected absences,lw1,lw2,lw3.");
+                int absences = Integer.parseInt(fields[0].trim());
+                double lw1 = score(fields[1]);
+                double lw2 = score(fields[2]);
+                double lw3 = score(fields[3]);
+                out.write(format(grid.requiredToPass(absences, lw1, lw2, lw3)) + ","
+                        + format(grid.requiredToExcel(absences, lw1, lw2, lw3)));
+            } catch (IllegalArgumentException e) {
+                out.write("error: " + (e instanceof NumberFormatException ? "Please enter valid numbers." : e.getMessage()));
+            }
+            out.newLine();
+        }
+        out.flush();
+    }
+
+    private static double score(String field) {
+        double score = Double.parseDouble(field.trim());
+        if (score < 0 || score > 100) throw new IllegalArgumentException("Lab Work grades must be between 0 and 100.");
+        return score;
+    }
+
+    private static String format(double required) {
+        return Double.isInfinite(required) ? "fail" : String.format("%.2f", required);
+    }
+}